@@ -5,6 +5,11 @@ echo    Smart City Scheduling - Final Compilation
 echo ===================================================
 echo.
 
+set JACKSON_CP=%USERPROFILE%\.m2\repository\com\fasterxml\jackson\core\jackson-core\2.15.2\jackson-core-2.15.2.jar
+
+REM Sources live in the smart-city-scheduling module
+pushd "%~dp0smart-city-scheduling"
+
 REM Clean and create directories
 if exist "target" rmdir /s /q "target"
 mkdir "target\classes"
@@ -29,12 +34,36 @@ echo Step 5: Compiling DAG shortest path classes...
 javac -cp target\classes -d target\classes src\main\java\graph\dagsp\*.java
 if %errorlevel% neq 0 exit /b 1
 
-echo Step 6: Compiling utility classes...
-javac -cp target\classes -d target\classes src\main\java\graph\util\*.java
+echo Step 6: Compiling reachability classes...
+javac -cp target\classes -d target\classes src\main\java\graph\reach\*.java
+if %errorlevel% neq 0 exit /b 1
+
+echo Step 7: Compiling vertex reordering classes...
+javac -cp target\classes -d target\classes src\main\java\graph\reorder\*.java
+if %errorlevel% neq 0 exit /b 1
+
+echo Step 8: Compiling scheduling classes...
+javac -cp target\classes -d target\classes src\main\java\graph\schedule\*.java
+if %errorlevel% neq 0 exit /b 1
+
+echo Step 9: Compiling utility classes...
+javac -cp target\classes;%JACKSON_CP% -d target\classes src\main\java\graph\util\*.java
+if %errorlevel% neq 0 exit /b 1
+
+echo Step 10: Compiling cache classes...
+javac -cp target\classes -d target\classes src\main\java\graph\cache\*.java
+if %errorlevel% neq 0 exit /b 1
+
+echo Step 11: Compiling batch classes...
+javac -cp target\classes;%JACKSON_CP% -d target\classes src\main\java\graph\batch\*.java
+if %errorlevel% neq 0 exit /b 1
+
+echo Step 12: Compiling server classes...
+javac -cp target\classes;%JACKSON_CP% -d target\classes src\main\java\graph\server\*.java
 if %errorlevel% neq 0 exit /b 1
 
-echo Step 7: Compiling main class...
-javac -cp target\classes -d target\classes src\main\java\graph\Main.java
+echo Step 13: Compiling main class...
+javac -cp target\classes;%JACKSON_CP% -d target\classes src\main\java\graph\Main.java
 if %errorlevel% neq 0 exit /b 1
 
 echo.
@@ -44,6 +73,7 @@ echo ===================================================
 echo.
 echo Running the application...
 echo.
-java -cp target\classes graph.Main
+java -cp target\classes;%JACKSON_CP% graph.Main
 echo.
+popd
 pause
\ No newline at end of file
@@ -0,0 +1,59 @@
+package graph.bench;
+
+import graph.common.Graph;
+import graph.model.EdgeList;
+import java.util.Random;
+
+/**
+ * Seeded synthetic graphs for the benchmarks, built straight into primitive edge arrays.
+ */
+public class BenchmarkGraphs {
+
+    public enum Shape {
+        /** Every edge goes from a lower to a higher vertex id. */
+        DAG,
+        /** Four strongly connected blocks chained as a DAG. */
+        FEW_LARGE_SCCS,
+        /** Cycles of eight vertices chained as a DAG. */
+        MANY_SMALL_SCCS
+    }
+
+    public static Graph generate(int edges, int degree, Shape shape, long seed) {
+        Random random = new Random(seed);
+        int vertices = Math.max(2, edges / Math.max(1, degree));
+        EdgeList list = new EdgeList(edges);
+        list.setVertices(vertices);
+
+        if (shape == Shape.DAG) {
+            for (int i = 0; i < edges; i++) {
+                int u = random.nextInt(vertices - 1);
+                int v = u + 1 + random.nextInt(vertices - u - 1);
+                list.addEdge(u, v, random.nextInt(10) + 1);
+            }
+            return list.toGraph();
+        }
+
+        int blockSize = shape == Shape.FEW_LARGE_SCCS ? (vertices + 3) / 4 : 8;
+        // A ring inside each block makes it strongly connected
+        for (int v = 0; v < vertices && list.size() < edges; v++) {
+            int blockStart = v - v % blockSize;
+            int blockEnd = Math.min(vertices, blockStart + blockSize);
+            int next = v + 1 < blockEnd ? v + 1 : blockStart;
+            if (next != v) {
+                list.addEdge(v, next, random.nextInt(10) + 1);
+            }
+        }
+        // Remaining edges stay inside a block or point to a later block, so blocks are exactly the SCCs
+        while (list.size() < edges) {
+            int u = random.nextInt(vertices);
+            int v = random.nextInt(vertices);
+            if (u / blockSize > v / blockSize) {
+                int swap = u;
+                u = v;
+                v = swap;
+            }
+            list.addEdge(u, v, random.nextInt(10) + 1);
+        }
+        return list.toGraph();
+    }
+}
\ No newline at end of file
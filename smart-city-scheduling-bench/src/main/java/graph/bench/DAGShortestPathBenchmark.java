@@ -0,0 +1,106 @@
+package graph.bench;
+
+import graph.common.CompressedGraph;
+import graph.common.Graph;
+import graph.dagsp.CompressedShortestPath;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.IncrementalShortestPath;
+import graph.dagsp.PathSession;
+import graph.scc.SCCFinder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Shortest paths and critical path on the DAG itself, or on the condensation graph for cyclic shapes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class DAGShortestPathBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    @Param({"2", "8"})
+    public int degree;
+
+    @Param({"DAG", "FEW_LARGE_SCCS", "MANY_SMALL_SCCS"})
+    public BenchmarkGraphs.Shape shape;
+
+    private Graph dag;
+    private PathSession session;
+    private CompressedGraph compressed;
+    private IncrementalShortestPath incremental;
+    private int[] editFrom;
+    private int[] editTo;
+    private int[] editWeight;
+    private int edit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dag = BenchmarkGraphs.generate(edges, degree, shape, 42);
+        if (shape != BenchmarkGraphs.Shape.DAG) {
+            SCCFinder finder = new SCCFinder(dag, SCCFinder.Algorithm.TARJAN);
+            dag = finder.buildCondensationGraph(finder.findSCCs().getComponents());
+        }
+        session = new PathSession(dag);
+        compressed = CompressedGraph.of(dag);
+        incremental = new IncrementalShortestPath(dag, 0, false);
+
+        // A fixed sample of edges to reweight, each nudged up and back down on alternate visits
+        Random random = new Random(42);
+        editFrom = new int[1024];
+        editTo = new int[1024];
+        editWeight = new int[1024];
+        for (int i = 0; i < editFrom.length && dag.getEdgesCount() > 0; i++) {
+            int u;
+            do {
+                u = random.nextInt(dag.getVerticesCount());
+            } while (dag.getOutDegree(u) == 0);
+            int e = dag.getEdgeStart(u) + random.nextInt(dag.getOutDegree(u));
+            editFrom[i] = u;
+            editTo[i] = dag.getEdgeTarget(e);
+            editWeight[i] = dag.getEdgeWeight(e);
+        }
+    }
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPathsFromSource() {
+        return new DAGShortestPath(dag).shortestPathsFromSource(0);
+    }
+
+    /**
+     * Same query on a session that keeps its topological order and arrays; compare the GC profiler's alloc rate.
+     */
+    @Benchmark
+    public PathSession.PathView sessionShortestPathsFromSource() {
+        return session.shortestPathsFromSource(0);
+    }
+
+    /**
+     * Same query decoding the delta/varint rows; the gap to shortestPathsFromSource is the decoding cost.
+     */
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult compressedShortestPathsFromSource() {
+        return new CompressedShortestPath(compressed).shortestPathsFromSource(0);
+    }
+
+    /**
+     * One edge weight revision on a kept solution; compare with shortestPathsFromSource, which redoes everything.
+     */
+    @Benchmark
+    public boolean incrementalUpdateWeight() {
+        int i = edit++ & (editFrom.length - 1);
+        int delta = (edit >>> 10) & 1;
+        return incremental.updateWeight(editFrom[i], editTo[i], editWeight[i] + delta);
+    }
+
+    @Benchmark
+    public DAGShortestPath.CriticalPathResult findCriticalPath() {
+        return new DAGShortestPath(dag).findCriticalPath();
+    }
+}
\ No newline at end of file
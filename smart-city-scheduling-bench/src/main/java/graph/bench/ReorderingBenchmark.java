@@ -0,0 +1,75 @@
+package graph.bench;
+
+import graph.common.Graph;
+import graph.dagsp.DAGShortestPath;
+import graph.reorder.VertexReordering;
+import graph.scc.SCCFinder;
+import graph.topo.TopologicalSort;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The three core algorithms on a graph whose vertex ids were shuffled, as they arrive from asset databases,
+ * against the same graph relabelled by each {@link VertexReordering.Strategy}. NONE is the shuffled graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ReorderingBenchmark {
+
+    @Param({"100000", "10000000"})
+    public int edges;
+
+    @Param({"4"})
+    public int degree;
+
+    @Param({"NONE", "BFS", "RCM", "TOPOLOGICAL", "DEGREE"})
+    public String strategy;
+
+    private Graph graph;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Graph generated = BenchmarkGraphs.generate(edges, degree, BenchmarkGraphs.Shape.DAG, 42);
+        int n = generated.getVerticesCount();
+        int[] shuffle = new int[n];
+        for (int i = 0; i < n; i++) {
+            shuffle[i] = i;
+        }
+        Random random = new Random(7);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shuffle[i];
+            shuffle[i] = shuffle[j];
+            shuffle[j] = swap;
+        }
+        VertexReordering shuffled = VertexReordering.of(generated, shuffle);
+        graph = shuffled.getGraph();
+        source = shuffled.toReordered(0);
+        if (!"NONE".equals(strategy)) {
+            VertexReordering reordering = VertexReordering.of(graph, VertexReordering.Strategy.valueOf(strategy));
+            graph = reordering.getGraph();
+            source = reordering.toReordered(source);
+        }
+    }
+
+    @Benchmark
+    public SCCFinder.SCCResult tarjan() {
+        return new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs();
+    }
+
+    @Benchmark
+    public TopologicalSort.TopoResult kahnTopologicalSort() {
+        return new TopologicalSort(graph).kahnTopologicalSort();
+    }
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPathsFromSource() {
+        return new DAGShortestPath(graph).shortestPathsFromSource(source);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package graph.bench;
+
+import graph.common.CompressedGraph;
+import graph.common.Graph;
+import graph.scc.CompressedSCC;
+import graph.scc.SCCFinder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx8g"})
+public class SCCBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    @Param({"2", "8"})
+    public int degree;
+
+    @Param({"DAG", "FEW_LARGE_SCCS", "MANY_SMALL_SCCS"})
+    public BenchmarkGraphs.Shape shape;
+
+    @Param({"KOSARAJU", "TARJAN", "PARALLEL"})
+    public SCCFinder.Algorithm algorithm;
+
+    private Graph graph;
+    private CompressedGraph compressed;
+    private List<List<Integer>> components;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = BenchmarkGraphs.generate(edges, degree, shape, 42);
+        components = new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs().getComponents();
+        compressed = CompressedGraph.of(graph);
+    }
+
+    @Benchmark
+    public SCCFinder.SCCResult findSCCs() {
+        return new SCCFinder(graph, algorithm).findSCCs();
+    }
+
+    /**
+     * Tarjan decoding the delta/varint rows; independent of the algorithm parameter.
+     */
+    @Benchmark
+    public SCCFinder.SCCResult findSCCsCompressed() {
+        return new CompressedSCC(compressed).findSCCs();
+    }
+
+    @Benchmark
+    public Graph buildCondensationGraph() {
+        return new SCCFinder(graph, algorithm).buildCondensationGraph(components);
+    }
+}
\ No newline at end of file
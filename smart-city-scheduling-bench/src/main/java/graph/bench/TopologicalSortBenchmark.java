@@ -0,0 +1,49 @@
+package graph.bench;
+
+import graph.common.Graph;
+import graph.scc.SCCFinder;
+import graph.topo.TopologicalSort;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Kahn's sort, flat and level-synchronous, on the DAG itself, or on the condensation graph for cyclic shapes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class TopologicalSortBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    @Param({"2", "8"})
+    public int degree;
+
+    @Param({"DAG", "FEW_LARGE_SCCS", "MANY_SMALL_SCCS"})
+    public BenchmarkGraphs.Shape shape;
+
+    private Graph dag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dag = BenchmarkGraphs.generate(edges, degree, shape, 42);
+        if (shape != BenchmarkGraphs.Shape.DAG) {
+            SCCFinder finder = new SCCFinder(dag, SCCFinder.Algorithm.TARJAN);
+            dag = finder.buildCondensationGraph(finder.findSCCs().getComponents());
+        }
+    }
+
+    @Benchmark
+    public TopologicalSort.TopoResult kahnTopologicalSort() {
+        return new TopologicalSort(dag).kahnTopologicalSort();
+    }
+
+    @Benchmark
+    public TopologicalSort.LevelResult levelTopologicalSort() {
+        return new TopologicalSort(dag).levelTopologicalSort();
+    }
+}
\ No newline at end of file
@@ -1,9 +1,42 @@
 package graph;
 
+import graph.batch.BatchAnalyzer;
+import graph.batch.BatchReport;
+import graph.cache.AnalysisCache;
+import graph.common.BaseMetrics;
+import graph.common.CompressedGraph;
 import graph.common.Graph;
+import graph.common.Metrics;
+import graph.common.OffHeapGraph;
+import graph.scc.CompressedSCC;
+import graph.scc.DynamicSCC;
 import graph.scc.SCCFinder;
+import graph.topo.DynamicTopologicalSort;
 import graph.topo.TopologicalSort;
+import graph.dagsp.CompressedShortestPath;
 import graph.dagsp.DAGShortestPath;
+import graph.dagsp.HybridShortestPath;
+import graph.dagsp.IncrementalShortestPath;
+import graph.dagsp.PathSession;
+import graph.model.EdgeList;
+import graph.reach.ReachabilityIndex;
+import graph.reorder.VertexReordering;
+import graph.schedule.ListScheduler;
+import graph.server.GraphSnapshot;
+import graph.server.QueryServer;
+import graph.util.BinaryGraphUtil;
+import graph.util.DataGenerator;
+import graph.util.JsonUtil;
+import graph.util.TextGraphUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class AlgorithmTests {
 
@@ -20,16 +53,30 @@ public class AlgorithmTests {
         testTopologicalSort();
         testShortestPath();
         testCriticalPath();
+        testListScheduler();
+        testJsonLoader();
+        testTextLoader();
+        testBinaryFormat();
+        testOffHeapGraph();
+        testCompressedGraph();
+        testSyntheticGenerator();
+        testMetrics();
+        testBatchAnalyzer();
+        testAnalysisCache();
+        testQueryServer();
+        testReachabilityIndex();
+        testVertexReordering();
     }
 
     private static void testSCC() {
         System.out.println("\n1. Testing SCC Finder...");
 
         // Test 1 Simple DAG
-        Graph dag = new Graph(4);
-        dag.addEdge(0, 1, 1);
-        dag.addEdge(1, 2, 1);
-        dag.addEdge(2, 3, 1);
+        Graph.Builder dagBuilder = Graph.builder(4);
+        dagBuilder.addEdge(0, 1, 1);
+        dagBuilder.addEdge(1, 2, 1);
+        dagBuilder.addEdge(2, 3, 1);
+        Graph dag = dagBuilder.build();
 
         SCCFinder finder = new SCCFinder(dag);
         SCCFinder.SCCResult result = finder.findSCCs();
@@ -41,10 +88,11 @@ public class AlgorithmTests {
         }
 
         // Test 2 Graph with cycle
-        Graph cyclic = new Graph(3);
-        cyclic.addEdge(0, 1, 1);
-        cyclic.addEdge(1, 2, 1);
-        cyclic.addEdge(2, 0, 1);
+        Graph.Builder cyclicBuilder = Graph.builder(3);
+        cyclicBuilder.addEdge(0, 1, 1);
+        cyclicBuilder.addEdge(1, 2, 1);
+        cyclicBuilder.addEdge(2, 0, 1);
+        Graph cyclic = cyclicBuilder.build();
 
         SCCFinder finder2 = new SCCFinder(cyclic);
         SCCFinder.SCCResult result2 = finder2.findSCCs();
@@ -54,16 +102,241 @@ public class AlgorithmTests {
         } else {
             System.out.println("✗ SCC Test 2 FAILED");
         }
+
+        // Test 3 Iterative Tarjan on a long chain closed into one cycle at the tail
+        int n = 200_000;
+        Graph.Builder chainBuilder = Graph.builder(n);
+        for (int i = 0; i + 1 < n; i++) {
+            chainBuilder.addEdge(i, i + 1, 1);
+        }
+        chainBuilder.addEdge(n - 1, n - 3, 1);
+        Graph chain = chainBuilder.build();
+
+        try {
+            SCCFinder.SCCResult result3 = new SCCFinder(chain, SCCFinder.Algorithm.TARJAN).findSCCs();
+            List<List<Integer>> components = result3.getComponents();
+            int first = result3.getTopologicalOrder().get(0);
+            if (components.size() == n - 2 && components.get(first).contains(0)
+                    && components.get(0).size() == 3) {
+                System.out.println("✓ SCC Test 3 PASSED: Tarjan handles " + n + "-vertex chain");
+            } else {
+                System.out.println("✗ SCC Test 3 FAILED");
+            }
+        } catch (StackOverflowError e) {
+            System.out.println("✗ SCC Test 3 FAILED: stack overflow");
+        }
+
+        // Test 4 Parallel forward-backward agrees with Tarjan
+        Random random = new Random(7);
+        int m = 20_000;
+        Graph.Builder randomBuilder = Graph.builder(m);
+        for (int i = 0; i < 3 * m; i++) {
+            int from = random.nextInt(m);
+            int to = random.nextInt(m);
+            randomBuilder.addEdge(from, to, random.nextInt(10) + 1);
+        }
+        Graph randomGraph = randomBuilder.build();
+
+        // A chain of 2-cycles (2i<->2i+1) -> (2i+2<->2i+3) is the pivot's worst case: every split peels one pair
+        int cyclePairs = 200_000;
+        Graph.Builder cycleChainBuilder = Graph.builder(2 * cyclePairs);
+        for (int i = 0; i < cyclePairs; i++) {
+            cycleChainBuilder.addEdge(2 * i, 2 * i + 1, 1).addEdge(2 * i + 1, 2 * i, 1);
+            if (i + 1 < cyclePairs) {
+                cycleChainBuilder.addEdge(2 * i + 1, 2 * i + 2, 1);
+            }
+        }
+        Graph cycleChain = cycleChainBuilder.build();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SCCFinder parallelFinder = new SCCFinder(randomGraph, SCCFinder.Algorithm.PARALLEL);
+        parallelFinder.setPool(pool);
+        parallelFinder.setParallelThreshold(64);
+        SCCFinder.SCCResult parallel = parallelFinder.findSCCs();
+        SCCFinder chainFinder = new SCCFinder(cycleChain, SCCFinder.Algorithm.PARALLEL);
+        chainFinder.setPool(pool);
+        chainFinder.setParallelThreshold(64);
+        SCCFinder.SCCResult parallelChain = chainFinder.findSCCs();
+        pool.shutdown();
+        SCCFinder.SCCResult sequential = new SCCFinder(randomGraph, SCCFinder.Algorithm.TARJAN).findSCCs();
+        SCCFinder.SCCResult sequentialChain = new SCCFinder(cycleChain, SCCFinder.Algorithm.TARJAN).findSCCs();
+
+        if (samePartition(parallel, sequential, m) && isTopologicalOrder(randomGraph, parallel)
+                && parallelChain.getComponents().size() == cyclePairs
+                && samePartition(parallelChain, sequentialChain, 2 * cyclePairs)
+                && isTopologicalOrder(cycleChain, parallelChain)) {
+            System.out.println("✓ SCC Test 4 PASSED: Parallel SCC matches Tarjan ("
+                    + parallel.getComponents().size() + " SCCs, " + cyclePairs + "-cycle chain)");
+        } else {
+            System.out.println("✗ SCC Test 4 FAILED");
+        }
+
+        // Test 5 Dynamic SCC merges on cycle creation and splits after deletion
+        DynamicSCC dynamic = new DynamicSCC(dag);
+        dynamic.addEdge(3, 1);
+        int afterInsert = dynamic.getComponentCount();
+        dynamic.removeEdge(2, 3);
+        int afterDelete = dynamic.getComponentCount();
+        if (afterInsert == 2 && afterDelete == 4 && dynamic.getCondensationGraph().getEdgesCount() == 3) {
+            System.out.println("✓ SCC Test 5 PASSED: Dynamic SCC tracks merge and split");
+        } else {
+            System.out.println("✗ SCC Test 5 FAILED: " + afterInsert + " then " + afterDelete + " SCCs");
+        }
+
+        // Test 6 Condensation merges parallel cross edges with the chosen weight aggregate
+        Graph twoCycles = Graph.builder(4).addEdge(0, 1, 1).addEdge(1, 0, 1).addEdge(2, 3, 1).addEdge(3, 2, 1)
+                .addEdge(0, 2, 4).addEdge(1, 3, 2).addEdge(1, 2, 7).build();
+        SCCFinder condenser = new SCCFinder(twoCycles, SCCFinder.Algorithm.TARJAN);
+        List<List<Integer>> pairs = condenser.findSCCs().getComponents();
+        int[] weights = new int[3];
+        for (SCCFinder.WeightAggregation aggregation : SCCFinder.WeightAggregation.values()) {
+            Graph condensed = condenser.condense(pairs, aggregation).getGraph();
+            weights[aggregation.ordinal()] = condensed.getEdgesCount() == 1 ? condensed.getEdgeWeight(0) : -1;
+        }
+        SCCFinder.CondensationResult randomCondensed = new SCCFinder(randomGraph, SCCFinder.Algorithm.TARJAN)
+                .condense(sequential.getComponents(), SCCFinder.WeightAggregation.MIN);
+        int[] randomComponentOf = randomCondensed.getComponentOf();
+        Set<Long> crossPairs = new HashSet<>();
+        for (int u = 0; u < m; u++) {
+            for (int e = randomGraph.getEdgeStart(u); e < randomGraph.getEdgeEnd(u); e++) {
+                int cu = randomComponentOf[u];
+                int cv = randomComponentOf[randomGraph.getEdgeTarget(e)];
+                if (cu != cv) {
+                    crossPairs.add(((long) cu << 32) | cv);
+                }
+            }
+        }
+        if (Arrays.equals(weights, new int[] {2, 7, 13}) && randomCondensed.getGraph().getEdgesCount() == crossPairs.size()) {
+            System.out.println("✓ SCC Test 6 PASSED: condensation weights min/max/sum = " + Arrays.toString(weights));
+        } else {
+            System.out.println("✗ SCC Test 6 FAILED: " + Arrays.toString(weights));
+        }
+
+        // Test 7 Dynamic SCC follows random insertions and deletions, and its condensation keeps edge weights
+        Random dynamicRandom = new Random(11);
+        int dn = 300;
+        DynamicSCC evolving = new DynamicSCC(dn);
+        List<int[]> liveEdges = new ArrayList<>();
+        boolean dynamicMatches = true;
+        for (int step = 1; step <= 3000 && dynamicMatches; step++) {
+            if (liveEdges.isEmpty() || dynamicRandom.nextInt(5) < 3) {
+                // Mostly short forward hops with some backward ones, so components keep merging and splitting
+                int from = dynamicRandom.nextInt(dn);
+                int to = Math.min(dn - 1, Math.max(0, from + dynamicRandom.nextInt(16) - 4));
+                // Parallel copies share a weight, since removeEdge may drop any one of them
+                int[] edge = {from, to, (from * 31 + to) % 9 + 1};
+                evolving.addEdge(edge[0], edge[1], edge[2]);
+                liveEdges.add(edge);
+            } else {
+                int[] edge = liveEdges.remove(dynamicRandom.nextInt(liveEdges.size()));
+                evolving.removeEdge(edge[0], edge[1]);
+            }
+            if (step % 100 == 0) {
+                Graph.Builder snapshot = Graph.builder(dn);
+                for (int[] edge : liveEdges) {
+                    snapshot.addEdge(edge[0], edge[1], edge[2]);
+                }
+                Graph current = snapshot.build();
+                SCCFinder currentFinder = new SCCFinder(current, SCCFinder.Algorithm.TARJAN);
+                SCCFinder.SCCResult expected = currentFinder.findSCCs();
+                List<List<Integer>> tracked = evolving.getComponents();
+                SCCFinder.CondensationResult expectedCondensed = currentFinder.condense(expected,
+                        SCCFinder.WeightAggregation.SUM);
+                int[] expectedOf = expectedCondensed.getComponentOf();
+                int[] representative = new int[tracked.size()];
+                for (int c = 0; c < tracked.size(); c++) {
+                    representative[c] = expectedOf[tracked.get(c).get(0)];
+                }
+                dynamicMatches = samePartition(new SCCFinder.SCCResult(tracked, 0, 0), expected, dn)
+                        && condensedEdges(evolving.condense(SCCFinder.WeightAggregation.SUM).getGraph(), representative)
+                        .equals(condensedEdges(expectedCondensed.getGraph(), null));
+            }
+        }
+        if (dynamicMatches) {
+            System.out.println("✓ SCC Test 7 PASSED: Dynamic SCC matches Tarjan over 3000 random updates ("
+                    + evolving.getComponentCount() + " SCCs)");
+        } else {
+            System.out.println("✗ SCC Test 7 FAILED: Dynamic SCC diverged from Tarjan");
+        }
+    }
+
+    private static int[] componentIds(SCCFinder.SCCResult result, int vertices) {
+        int[] ids = new int[vertices];
+        List<Integer> order = result.getTopologicalOrder();
+        for (int position = 0; position < order.size(); position++) {
+            for (int v : result.getComponents().get(order.get(position))) {
+                ids[v] = position;
+            }
+        }
+        return ids;
+    }
+
+    private static boolean samePartition(SCCFinder.SCCResult a, SCCFinder.SCCResult b, int vertices) {
+        if (a.getComponents().size() != b.getComponents().size()) {
+            return false;
+        }
+        int[] idsA = componentIds(a, vertices);
+        int[] idsB = componentIds(b, vertices);
+        // Equal counts plus a well-defined id mapping means the partitions coincide
+        Map<Integer, Integer> mapping = new HashMap<>();
+        for (int v = 0; v < vertices; v++) {
+            Integer previous = mapping.putIfAbsent(idsA[v], idsB[v]);
+            if (previous != null && previous != idsB[v]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Edges as "from->to:weight" with vertices renamed through ids (left as they are when ids is null)
+    private static Set<String> condensedEdges(Graph condensation, int[] ids) {
+        Set<String> edges = new HashSet<>();
+        for (int u = 0; u < condensation.getVerticesCount(); u++) {
+            for (int e = condensation.getEdgeStart(u); e < condensation.getEdgeEnd(u); e++) {
+                int v = condensation.getEdgeTarget(e);
+                edges.add((ids == null ? u : ids[u]) + "->" + (ids == null ? v : ids[v]) + ":"
+                        + condensation.getEdgeWeight(e));
+            }
+        }
+        return edges;
+    }
+
+    private static boolean isTopologicalOrder(Graph graph, SCCFinder.SCCResult result) {
+        int[] position = componentIds(result, graph.getVerticesCount());
+        for (int u = 0; u < graph.getVerticesCount(); u++) {
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                if (position[u] > position[graph.getEdgeTarget(e)]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTopologicalOrder(Graph graph, List<Integer> order) {
+        int[] position = new int[graph.getVerticesCount()];
+        for (int i = 0; i < order.size(); i++) {
+            position[order.get(i)] = i;
+        }
+        for (int u = 0; u < graph.getVerticesCount(); u++) {
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                if (position[u] >= position[graph.getEdgeTarget(e)]) {
+                    return false;
+                }
+            }
+        }
+        return order.size() == graph.getVerticesCount();
     }
 
     private static void testTopologicalSort() {
         System.out.println("\n2. Testing Topological Sort...");
 
-        Graph dag = new Graph(5);
-        dag.addEdge(0, 1, 1);
-        dag.addEdge(1, 2, 1);
-        dag.addEdge(2, 3, 1);
-        dag.addEdge(3, 4, 1);
+        Graph.Builder dagBuilder = Graph.builder(5);
+        dagBuilder.addEdge(0, 1, 1);
+        dagBuilder.addEdge(1, 2, 1);
+        dagBuilder.addEdge(2, 3, 1);
+        dagBuilder.addEdge(3, 4, 1);
+        Graph dag = dagBuilder.build();
 
         TopologicalSort topo = new TopologicalSort(dag);
         try {
@@ -76,16 +349,134 @@ public class AlgorithmTests {
         } catch (Exception e) {
             System.out.println("✗ Topological Sort Test FAILED: " + e.getMessage());
         }
+
+        // Online order: 3->1 swaps only 1 and 3, 1->3 would close a cycle
+        DynamicTopologicalSort dynamic = new DynamicTopologicalSort(5);
+        dynamic.addEdge(3, 1);
+        boolean rejected = false;
+        try {
+            dynamic.addEdge(1, 3);
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        if (rejected && dynamic.getOrder().equals(Arrays.asList(0, 3, 2, 1, 4))) {
+            System.out.println("✓ Dynamic Topological Sort Test 1 PASSED");
+        } else {
+            System.out.println("✗ Dynamic Topological Sort Test 1 FAILED: " + dynamic.getOrder());
+        }
+
+        // Random insertions: after each one every edge goes forward in the order, and a cycle is refused untouched
+        Random random = new Random(8);
+        int n = 300;
+        DynamicTopologicalSort online = new DynamicTopologicalSort(n);
+        List<List<Integer>> successors = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            successors.add(new ArrayList<>());
+        }
+        List<int[]> inserted = new ArrayList<>();
+        int accepted = 0;
+        int refused = 0;
+        boolean valid = true;
+        for (int step = 0; step < 3000 && valid; step++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            boolean closesCycle = u == v || reaches(successors, v, u);
+            List<Integer> before = online.getOrder();
+            try {
+                online.addEdge(u, v);
+                valid = !closesCycle;
+                successors.get(u).add(v);
+                inserted.add(new int[]{u, v});
+                accepted++;
+            } catch (IllegalArgumentException e) {
+                valid = closesCycle && online.getOrder().equals(before);
+                refused++;
+            }
+            List<Integer> order = online.getOrder();
+            for (int i = 0; i < n && valid; i++) {
+                valid = online.getPosition(order.get(i)) == i;
+            }
+            for (int[] edge : inserted) {
+                valid &= online.getPosition(edge[0]) < online.getPosition(edge[1]);
+            }
+        }
+        if (valid && accepted > 0 && refused > 0) {
+            System.out.println("✓ Dynamic Topological Sort Test 2 PASSED: " + accepted + " insertions kept the order, "
+                    + refused + " cycles refused");
+        } else {
+            System.out.println("✗ Dynamic Topological Sort Test 2 FAILED after " + accepted + " insertions");
+        }
+
+        testLevelTopologicalSort();
+    }
+
+    // Plain BFS over adjacency lists
+    private static boolean reaches(List<List<Integer>> successors, int from, int to) {
+        boolean[] seen = new boolean[successors.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(from);
+        seen[from] = true;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            if (u == to) {
+                return true;
+            }
+            for (int v : successors.get(u)) {
+                if (!seen[v]) {
+                    seen[v] = true;
+                    queue.add(v);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void testLevelTopologicalSort() {
+        // Test 1: diamond has three wavefronts
+        Graph diamond = Graph.builder(4).addEdge(0, 1, 1).addEdge(0, 2, 1).addEdge(1, 3, 1).addEdge(2, 3, 1).build();
+        List<List<Integer>> levels = new TopologicalSort(diamond).levelTopologicalSort().getLevels();
+        if (levels.equals(Arrays.asList(Arrays.asList(0), Arrays.asList(1, 2), Arrays.asList(3)))) {
+            System.out.println("✓ Level Topological Sort Test 1 PASSED: " + levels);
+        } else {
+            System.out.println("✗ Level Topological Sort Test 1 FAILED: " + levels);
+        }
+
+        // Test 2: parallel levelling of a wide random DAG matches the sequential one
+        Random random = new Random(11);
+        Graph.Builder builder = Graph.builder(100000);
+        for (int i = 0; i < 300000; i++) {
+            int layer = random.nextInt(9);
+            builder.addEdge(layer * 10000 + random.nextInt(10000), (layer + 1) * 10000 + random.nextInt(10000), 1);
+        }
+        Graph wide = builder.build();
+        TopologicalSort sequential = new TopologicalSort(wide);
+        sequential.setPool(null);
+        TopologicalSort parallel = new TopologicalSort(wide);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parallel.setPool(pool);
+        parallel.setParallelThreshold(0);
+        TopologicalSort.LevelResult expected = sequential.levelTopologicalSort();
+        TopologicalSort.LevelResult actual = parallel.levelTopologicalSort();
+        TopologicalSort.LevelResult again = parallel.levelTopologicalSort();
+        pool.shutdown();
+        if (expected.getLevels().equals(actual.getLevels()) && isTopologicalOrder(wide, actual.getOrder())
+                && Arrays.equals(actual.getOrderArray(), again.getOrderArray())
+                && Arrays.equals(expected.getLevelOffsets(), actual.getLevelOffsets())) {
+            System.out.println("✓ Level Topological Sort Test 2 PASSED: " + actual.getLevelCount() + " levels");
+        } else {
+            System.out.println("✗ Level Topological Sort Test 2 FAILED");
+        }
     }
 
     private static void testShortestPath() {
         System.out.println("\n3. Testing Shortest Path...");
 
-        Graph graph = new Graph(4);
-        graph.addEdge(0, 1, 2);
-        graph.addEdge(0, 2, 5);
-        graph.addEdge(1, 3, 1);
-        graph.addEdge(2, 3, 1);
+        Graph.Builder graphBuilder = Graph.builder(4);
+        graphBuilder.addEdge(0, 1, 2);
+        graphBuilder.addEdge(0, 2, 5);
+        graphBuilder.addEdge(1, 3, 1);
+        graphBuilder.addEdge(2, 3, 1);
+        Graph graph = graphBuilder.build();
 
         DAGShortestPath sp = new DAGShortestPath(graph);
         DAGShortestPath.ShortestPathResult result = sp.shortestPathsFromSource(0);
@@ -95,16 +486,195 @@ public class AlgorithmTests {
         } else {
             System.out.println("✗ Shortest Path Test FAILED");
         }
+
+        // Session: same answers as DAGShortestPath, and no allocation once warmed up
+        Random random = new Random(3);
+        int vertices = 2000;
+        Graph.Builder dagBuilder = Graph.builder(vertices);
+        for (int i = 0; i < 4 * vertices; i++) {
+            int u = random.nextInt(vertices - 1);
+            dagBuilder.addEdge(u, u + 1 + random.nextInt(vertices - 1 - u), random.nextInt(20) + 1);
+        }
+        Graph dag = dagBuilder.build();
+        PathSession session = new PathSession(dag);
+        DAGShortestPath reference = new DAGShortestPath(dag);
+        boolean same = true;
+        for (int source = 0; source < vertices; source += 97) {
+            same &= Arrays.equals(session.shortestPathsFromSource(source).getDistances(),
+                    reference.shortestPathsFromSource(source).getDistances());
+            same &= Arrays.equals(session.longestPathsFromSource(source).getDistances(),
+                    reference.longestPathsFromSource(source).getDistances());
+        }
+        int[] path = new int[vertices];
+        int length = session.shortestPathsFromSource(0).pathTo(vertices - 1, path);
+        same &= length > 0 && path[0] == 0 && path[length - 1] == vertices - 1;
+
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                session.shortestPathsFromSource(i % vertices).pathTo(vertices - 1, path);
+            }
+        });
+        if (same && allocated < 64 * 1024) {
+            System.out.println("✓ Path Session Test PASSED: " + (allocated < 0 ? "allocation not measurable"
+                    : allocated + " bytes allocated by 20000 queries"));
+        } else {
+            System.out.println("✗ Path Session Test FAILED: " + allocated + " bytes allocated");
+        }
+
+        // Hybrid: cyclic graph with negative edges only between components, checked against Bellman-Ford
+        int n = 300;
+        Graph.Builder cyclicBuilder = Graph.builder(n);
+        for (int i = 0; i < 4 * n; i++) {
+            int u = random.nextInt(n);
+            int v = i % 2 == 0 ? u / 10 * 10 + random.nextInt(10) : random.nextInt(n);
+            // Backward edges only within blocks of 10 vertices, so every cycle stays inside a block
+            if (u > v && u / 10 != v / 10) {
+                int t = u;
+                u = v;
+                v = t;
+            }
+            boolean crossBlock = u / 10 != v / 10;
+            cyclicBuilder.addEdge(u, v, crossBlock ? random.nextInt(30) - 10 : random.nextInt(20));
+        }
+        Graph cyclic = cyclicBuilder.build();
+        long[] expected = new long[n];
+        Arrays.fill(expected, HybridShortestPath.UNREACHABLE);
+        expected[0] = 0;
+        for (int round = 0; round < n; round++) {
+            for (int u = 0; u < n; u++) {
+                for (int e = cyclic.getEdgeStart(u); e < cyclic.getEdgeEnd(u) && expected[u] != HybridShortestPath.UNREACHABLE; e++) {
+                    int v = cyclic.getEdgeTarget(e);
+                    expected[v] = Math.min(expected[v], expected[u] + cyclic.getEdgeWeight(e));
+                }
+            }
+        }
+        HybridShortestPath hybrid = new HybridShortestPath(cyclic);
+        HybridShortestPath.DistanceResult hybridResult = hybrid.shortestPathsFromSource(0);
+
+        // Three maximal weights overflow int but not long
+        Graph heavy = Graph.builder(4).addEdge(0, 1, Integer.MAX_VALUE).addEdge(1, 2, Integer.MAX_VALUE)
+                .addEdge(2, 1, 1).addEdge(2, 3, Integer.MAX_VALUE).build();
+        long heavyDistance = new HybridShortestPath(heavy).shortestPathsFromSource(0).getDistances()[3];
+        if (Arrays.equals(expected, hybridResult.getDistances()) && hybrid.getComponentCount() < n
+                && heavyDistance == 3L * Integer.MAX_VALUE) {
+            System.out.println("✓ Hybrid Shortest Path Test PASSED: " + hybrid.getComponentCount() + " SCCs, "
+                    + "matches Bellman-Ford");
+        } else {
+            System.out.println("✗ Hybrid Shortest Path Test FAILED: heavy distance " + heavyDistance);
+        }
+
+        // A self-loop is a single-vertex SCC but still a cycle, so SCC count alone does not prove a DAG
+        Graph looped = Graph.builder(3).addEdge(0, 1, 1).addEdge(1, 1, 2).addEdge(1, 2, 1).build();
+        if (new SCCFinder(looped).findSCCs().getComponentCount() == 3 && looped.hasSelfLoops()
+                && !dag.hasSelfLoops()) {
+            System.out.println("✓ Self-Loop Detection Test PASSED");
+        } else {
+            System.out.println("✗ Self-Loop Detection Test FAILED");
+        }
+
+        // Incremental: random reweights, insertions and removals, checked against a fresh run after each edit
+        List<int[]> edgeList = new ArrayList<>();
+        for (int u = 0; u < vertices; u++) {
+            for (int e = dag.getEdgeStart(u); e < dag.getEdgeEnd(u); e++) {
+                edgeList.add(new int[]{u, dag.getEdgeTarget(e), dag.getEdgeWeight(e)});
+            }
+        }
+        IncrementalShortestPath shortest = new IncrementalShortestPath(dag, 0, false);
+        IncrementalShortestPath longest = new IncrementalShortestPath(dag, 0, true);
+        boolean incrementalSame = true;
+        int[] previous = shortest.toResult().getDistances();
+        long totalChanged = 0;
+        for (int edit = 0; edit < 300 && incrementalSame; edit++) {
+            int kind = edit % 3;
+            if (kind == 0) {
+                int[] edge = edgeList.get(random.nextInt(edgeList.size()));
+                int weight = random.nextInt(20) + 1;
+                for (int[] other : edgeList) {
+                    if (other[0] == edge[0] && other[1] == edge[1]) {
+                        other[2] = weight;
+                    }
+                }
+                shortest.updateWeight(edge[0], edge[1], weight);
+                longest.updateWeight(edge[0], edge[1], weight);
+            } else if (kind == 1) {
+                int u = random.nextInt(vertices - 1);
+                int v = u + 1 + random.nextInt(vertices - 1 - u);
+                int weight = random.nextInt(20) + 1;
+                edgeList.add(new int[]{u, v, weight});
+                shortest.addEdge(u, v, weight);
+                longest.addEdge(u, v, weight);
+            } else {
+                int[] edge = edgeList.get(random.nextInt(edgeList.size()));
+                // Parallel copies may differ in weight; drop the one the incremental side will drop
+                for (int i = 0; i < edgeList.size(); i++) {
+                    if (edgeList.get(i)[0] == edge[0] && edgeList.get(i)[1] == edge[1]) {
+                        edge = edgeList.get(i);
+                        break;
+                    }
+                }
+                edgeList.remove(edge);
+                incrementalSame &= shortest.removeEdge(edge[0], edge[1]) && longest.removeEdge(edge[0], edge[1]);
+            }
+            Graph.Builder rebuilt = Graph.builder(vertices);
+            for (int[] edge : edgeList) {
+                rebuilt.addEdge(edge[0], edge[1], edge[2]);
+            }
+            DAGShortestPath fresh = new DAGShortestPath(rebuilt.build());
+            int[] current = fresh.shortestPathsFromSource(0).getDistances();
+            incrementalSame &= Arrays.equals(shortest.toResult().getDistances(), current);
+            // Exactly the vertices whose distance moved are reported, and nothing else was touched
+            int moved = 0;
+            for (int v = 0; v < vertices; v++) {
+                moved += previous[v] != current[v] ? 1 : 0;
+            }
+            for (int v : shortest.getChangedVertices()) {
+                incrementalSame &= previous[v] != current[v];
+            }
+            incrementalSame &= shortest.getChangedVertices().length == moved;
+            totalChanged += moved;
+            previous = current;
+            incrementalSame &= Arrays.equals(longest.toResult().getDistances(),
+                    fresh.longestPathsFromSource(0).getDistances());
+        }
+        boolean cycleRejected = false;
+        int before = shortest.getDistance(vertices - 1);
+        try {
+            shortest.addEdge(vertices - 1, 0, 1);
+        } catch (IllegalArgumentException e) {
+            cycleRejected = shortest.getDistance(vertices - 1) == before;
+        }
+        if (incrementalSame && cycleRejected) {
+            System.out.println("✓ Incremental Shortest Path Test PASSED: 300 edits, " + totalChanged
+                    + " distance changes in total for " + vertices + " vertices");
+        } else {
+            System.out.println("✗ Incremental Shortest Path Test FAILED");
+        }
+    }
+
+    // Bytes allocated by the current thread while running the task (after one warm-up run), -1 if the JVM cannot tell
+    private static long allocatedBytes(Runnable task) {
+        java.lang.management.ThreadMXBean threads = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            task.run();
+            return -1;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+        task.run();
+        long before = counter.getThreadAllocatedBytes(thread);
+        task.run();
+        return counter.getThreadAllocatedBytes(thread) - before;
     }
 
     private static void testCriticalPath() {
         System.out.println("\n4. Testing Critical Path...");
 
-        Graph graph = new Graph(4);
-        graph.addEdge(0, 1, 2);
-        graph.addEdge(0, 2, 5);
-        graph.addEdge(1, 3, 1);
-        graph.addEdge(2, 3, 1);
+        Graph.Builder graphBuilder = Graph.builder(4);
+        graphBuilder.addEdge(0, 1, 2);
+        graphBuilder.addEdge(0, 2, 5);
+        graphBuilder.addEdge(1, 3, 1);
+        graphBuilder.addEdge(2, 3, 1);
+        Graph graph = graphBuilder.build();
 
         DAGShortestPath sp = new DAGShortestPath(graph);
         DAGShortestPath.CriticalPathResult result = sp.findCriticalPath();
@@ -114,5 +684,789 @@ public class AlgorithmTests {
         } else {
             System.out.println("✗ Critical Path Test FAILED");
         }
+
+        int[] slack = result.getSlack();
+        if (slack[0] == 0 && slack[1] == 3 && slack[2] == 0 && slack[3] == 0) { // 1 can start at 2 or as late as 5
+            System.out.println("✓ Slack Test PASSED");
+        } else {
+            System.out.println("✗ Slack Test FAILED: " + Arrays.toString(slack));
+        }
+    }
+
+    private static void testListScheduler() {
+        System.out.println("\n4b. Testing List Scheduler...");
+
+        // Test 1: diamond on two workers, the longer branch 1 goes first
+        Graph diamond = Graph.builder(4).addEdge(0, 1, 0).addEdge(0, 2, 0).addEdge(1, 3, 0).addEdge(2, 3, 0).build();
+        ListScheduler.ScheduleResult two = new ListScheduler(diamond).schedule(2, new int[]{2, 3, 1, 2});
+        ListScheduler.ScheduleResult one = new ListScheduler(diamond).schedule(1, new int[]{2, 3, 1, 2});
+        if (two.getMakespan() == 7 && Arrays.equals(two.getStart(), new int[]{0, 2, 2, 5})
+                && Arrays.equals(two.getWorker(), new int[]{0, 0, 1, 0}) && one.getMakespan() == 8) {
+            System.out.println("✓ List Scheduler Test 1 PASSED: makespan 7 on 2 workers, 8 on 1");
+        } else {
+            System.out.println("✗ List Scheduler Test 1 FAILED: " + Arrays.toString(two.getStart()));
+        }
+
+        // Test 2: a million tasks with lags respect precedence and never overlap on a worker
+        Random random = new Random(5);
+        int n = 1_000_000;
+        Graph.Builder builder = Graph.builder(n);
+        int[] durations = new int[n];
+        for (int v = 0; v < n; v++) {
+            durations[v] = 1 + random.nextInt(10);
+            if (v > 0) {
+                for (int k = 0; k < 2; k++) {
+                    builder.addEdge(Math.max(0, v - 1 - random.nextInt(1000)), v, random.nextInt(3));
+                }
+            }
+        }
+        Graph tasks = builder.build();
+        long started = System.nanoTime();
+        ListScheduler.ScheduleResult result = new ListScheduler(tasks).schedule(16, durations);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        boolean valid = true;
+        for (int u = 0; u < n && valid; u++) {
+            for (int e = tasks.getEdgeStart(u); e < tasks.getEdgeEnd(u) && valid; e++) {
+                valid = result.getStart()[tasks.getEdgeTarget(e)] >= result.getFinish()[u] + tasks.getEdgeWeight(e);
+            }
+        }
+        for (int[] timeline : result.getWorkerTimelines()) {
+            for (int i = 1; i < timeline.length && valid; i++) {
+                valid = result.getStart()[timeline[i]] >= result.getFinish()[timeline[i - 1]];
+            }
+        }
+        if (valid) {
+            System.out.println("✓ List Scheduler Test 2 PASSED: " + n + " tasks on 16 workers, makespan "
+                    + result.getMakespan() + ", " + millis + " ms");
+        } else {
+            System.out.println("✗ List Scheduler Test 2 FAILED");
+        }
+
+        // Test 3: a cycle runs as one job on the condensation, for the sum of its members' durations
+        Graph looped = Graph.builder(4).addEdge(0, 1, 0).addEdge(1, 2, 0).addEdge(2, 1, 0).addEdge(2, 3, 1).build();
+        SCCFinder loopFinder = new SCCFinder(looped, SCCFinder.Algorithm.TARJAN);
+        SCCFinder.CondensationResult loopCondensed = loopFinder.condense(loopFinder.findSCCs(),
+                SCCFinder.WeightAggregation.MIN);
+        int[] loopOf = loopCondensed.getComponentOf();
+        ListScheduler.ScheduleResult condensedSchedule = new ListScheduler(looped)
+                .scheduleCondensed(2, loopCondensed, new int[]{2, 3, 1, 2});
+        if (loopCondensed.getComponentCount() == 3 && condensedSchedule.getStart().length == 3
+                && condensedSchedule.getFinish()[loopOf[1]] - condensedSchedule.getStart()[loopOf[1]] == 4
+                && condensedSchedule.getStart()[loopOf[3]] == 7 && condensedSchedule.getMakespan() == 9) {
+            System.out.println("✓ List Scheduler Test 3 PASSED: cycle scheduled as one 4-unit job, makespan 9");
+        } else {
+            System.out.println("✗ List Scheduler Test 3 FAILED: " + Arrays.toString(condensedSchedule.getStart()));
+        }
+    }
+
+    private static void testJsonLoader() {
+        System.out.println("\n5. Testing Streaming JSON Loader...");
+
+        try {
+            File valid = File.createTempFile("graph", ".json");
+            File broken = File.createTempFile("graph", ".json");
+            valid.deleteOnExit();
+            broken.deleteOnExit();
+            Files.write(valid.toPath(), ("{\"directed\": true, \"n\": 3, \"edges\": [\n"
+                    + "  {\"u\": 0, \"v\": 1, \"w\": 4},\n  {\"u\": 0, \"v\": 1, \"w\": 2}\n],\n"
+                    + "\"source\": 0, \"weight_model\": \"edge\"}").getBytes(StandardCharsets.UTF_8));
+            Files.write(broken.toPath(), ("{\"n\": 3, \"edges\": [\n"
+                    + "  {\"u\": 0, \"v\": 1, \"w\": 4},\n  {\"u\": 0 \"v\": 2}\n]}").getBytes(StandardCharsets.UTF_8));
+
+            EdgeList edges = JsonUtil.readEdgeList(valid.getPath());
+            Graph graph = edges.toGraph();
+            if (graph.getEdgesCount() == 2 && graph.getWeight(0, 1) == 2 && edges.getSource() == 0) {
+                System.out.println("✓ JSON Loader Test 1 PASSED: parallel edges kept");
+            } else {
+                System.out.println("✗ JSON Loader Test 1 FAILED");
+            }
+
+            try {
+                JsonUtil.readEdgeList(broken.getPath());
+                System.out.println("✗ JSON Loader Test 2 FAILED: no error");
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage().contains("line 3")) {
+                    System.out.println("✓ JSON Loader Test 2 PASSED: " + e.getMessage());
+                } else {
+                    System.out.println("✗ JSON Loader Test 2 FAILED: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("✗ JSON Loader Test FAILED: " + e.getMessage());
+        }
+    }
+
+    private static void testTextLoader() {
+        System.out.println("\n5b. Testing Text Edge List Loader...");
+
+        try {
+            // Test 1: header, comments, CRLF, mixed separators and a missing weight
+            File small = File.createTempFile("edges", ".csv");
+            small.deleteOnExit();
+            Files.write(small.toPath(), ("source,target,weight\r\n# comment\n0,1,4\r\n1\t2\t-3\n"
+                    + "% another\n2 0\n\n0;1;2").getBytes(StandardCharsets.UTF_8));
+            Graph graph = TextGraphUtil.read(small, -1, 2);
+            boolean parsed = graph.getVerticesCount() == 3 && graph.getEdgesCount() == 4
+                    && graph.getEdgeWeight(graph.getEdgeStart(0)) == 4 && graph.getEdgeWeight(graph.getEdgeStart(0) + 1) == 2
+                    && graph.getWeight(1, 2) == -3 && graph.getWeight(2, 0) == 1;
+            if (parsed) {
+                System.out.println("✓ Text Loader Test 1 PASSED: CSV with header, comments and defaults");
+            } else {
+                System.out.println("✗ Text Loader Test 1 FAILED");
+            }
+
+            // Test 2: a file spanning many chunks loads exactly like a sequential build, rows in file order
+            File large = File.createTempFile("edges", ".txt");
+            large.deleteOnExit();
+            Random random = new Random(24);
+            int n = 5000;
+            Graph.Builder builder = Graph.builder(n);
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 60000; i++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                int w = random.nextInt(1000) - 100;
+                builder.addEdge(u, v, w);
+                text.append(u).append(' ').append(v).append(' ').append(w).append('\n');
+            }
+            Files.write(large.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+            Graph expected = builder.build();
+            Graph loaded = TextGraphUtil.read(large, n, 4);
+            boolean same = loaded.getEdgesCount() == expected.getEdgesCount();
+            for (int v = 0; v <= n && same; v++) {
+                same = v == n || (loaded.getEdgeStart(v) == expected.getEdgeStart(v)
+                        && loaded.getReverseEdgeStart(v) == expected.getReverseEdgeStart(v));
+            }
+            for (int e = 0; e < expected.getEdgesCount() && same; e++) {
+                same = loaded.getEdgeTarget(e) == expected.getEdgeTarget(e) && loaded.getEdgeWeight(e) == expected.getEdgeWeight(e)
+                        && loaded.getReverseEdgeSource(e) == expected.getReverseEdgeSource(e)
+                        && loaded.getReverseEdgeWeight(e) == expected.getReverseEdgeWeight(e);
+            }
+            if (same) {
+                System.out.println("✓ Text Loader Test 2 PASSED: " + loaded.getEdgesCount() + " edges match a sequential load");
+            } else {
+                System.out.println("✗ Text Loader Test 2 FAILED");
+            }
+
+            // Test 3: a malformed line names its byte offset
+            File broken = File.createTempFile("edges", ".txt");
+            broken.deleteOnExit();
+            Files.write(broken.toPath(), "0 1 2\n1 x 3\n".getBytes(StandardCharsets.UTF_8));
+            try {
+                TextGraphUtil.read(broken, -1, 2);
+                System.out.println("✗ Text Loader Test 3 FAILED: no error");
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage().contains("byte 6")) {
+                    System.out.println("✓ Text Loader Test 3 PASSED: " + e.getMessage());
+                } else {
+                    System.out.println("✗ Text Loader Test 3 FAILED: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("✗ Text Loader Test FAILED: " + e.getMessage());
+        }
+    }
+
+    private static void testBinaryFormat() {
+        System.out.println("\n6. Testing Binary Graph Format...");
+
+        Graph.Builder builder = Graph.builder(5);
+        builder.addEdge(0, 1, 3);
+        builder.addEdge(1, 2, 2);
+        builder.addEdge(2, 0, 1);
+        builder.addEdge(2, 3, 7);
+        builder.addEdge(2, 3, 4);
+        builder.addEdge(3, 4, 5);
+        Graph graph = builder.build();
+
+        try {
+            File file = File.createTempFile("graph", ".bin");
+            file.deleteOnExit();
+            BinaryGraphUtil.write(graph, 2, file);
+            BinaryGraphUtil.MappedGraph mapped = BinaryGraphUtil.map(file);
+            // Rewriting the file while it is mapped must leave the old mapping readable
+            BinaryGraphUtil.write(Graph.builder(2).addEdge(0, 1, 9).build(), null, file);
+            BinaryGraphUtil.MappedGraph rewritten = BinaryGraphUtil.map(file);
+
+            boolean same = rewritten.getVerticesCount() == 2 && rewritten.getEdgeWeight(0) == 9
+                    && mapped.getVerticesCount() == 5 && mapped.getEdgesCount() == 6 && mapped.getSource() == 2;
+            for (int u = 0; u < 5 && same; u++) {
+                same = mapped.getEdgeStart(u) == graph.getEdgeStart(u) && mapped.getInDegree(u) == graph.getInDegree(u);
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u) && same; e++) {
+                    same = mapped.getEdgeTarget(e) == graph.getEdgeTarget(e) && mapped.getEdgeWeight(e) == graph.getEdgeWeight(e);
+                }
+            }
+            if (same && new SCCFinder(mapped).findSCCs().getComponents().size() == 3) {
+                System.out.println("✓ Binary Format Test PASSED: mapped graph matches and survives a rewrite");
+            } else {
+                System.out.println("✗ Binary Format Test FAILED");
+            }
+        } catch (IOException e) {
+            System.out.println("✗ Binary Format Test FAILED: " + e.getMessage());
+        }
+    }
+
+    private static void testOffHeapGraph() {
+        System.out.println("\n6b. Testing Off-Heap Graph...");
+
+        // Test 1: algorithms give the same answers on native memory as on the heap
+        Random random = new Random(21);
+        int n = 3000;
+        Graph.Builder heap = Graph.builder(n);
+        OffHeapGraph.Builder offHeap = OffHeapGraph.builder(n);
+        for (int i = 0; i < 4 * n; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(Math.min(50, n - u - 1));
+            int w = 1 + random.nextInt(20);
+            heap.addEdge(u, v, w);
+            offHeap.addEdge(u, v, w);
+        }
+        Graph expected = heap.build();
+        OffHeapGraph graph = offHeap.build();
+        boolean same = graph.getEdgesCount() == expected.getEdgesCount();
+        for (int v = 0; v < n && same; v++) {
+            same = graph.getEdgeStart(v) == expected.getEdgeStart(v) && graph.getInDegree(v) == expected.getInDegree(v);
+        }
+        for (int e = 0; e < expected.getEdgesCount() && same; e++) {
+            same = graph.getEdgeTarget(e) == expected.getEdgeTarget(e) && graph.getEdgeWeight(e) == expected.getEdgeWeight(e)
+                    && graph.getReverseEdgeSource(e) == expected.getReverseEdgeSource(e)
+                    && graph.getReverseEdgeWeight(e) == expected.getReverseEdgeWeight(e);
+        }
+        same = same && new SCCFinder(graph).findSCCs().getComponentCount() == n
+                && isTopologicalOrder(graph, new TopologicalSort(graph).kahnTopologicalSort().getOrder())
+                && Arrays.equals(new DAGShortestPath(graph).shortestPathsFromSource(0).getDistances(),
+                        new DAGShortestPath(expected).shortestPathsFromSource(0).getDistances())
+                && new DAGShortestPath(graph).findCriticalPath().getLength()
+                        == new DAGShortestPath(expected).findCriticalPath().getLength();
+        OffHeapGraph copy = OffHeapGraph.copyOf(expected);
+        same = same && Arrays.equals(new DAGShortestPath(copy).longestPathsFromSource(0).getDistances(),
+                new DAGShortestPath(expected).longestPathsFromSource(0).getDistances());
+        copy.close();
+        if (same) {
+            System.out.println("✓ Off-Heap Graph Test 1 PASSED: SCC, topological order and paths match the heap graph");
+        } else {
+            System.out.println("✗ Off-Heap Graph Test 1 FAILED");
+        }
+
+        // Test 2: a closed graph, built or mapped, refuses access instead of reading freed memory
+        boolean refused = false;
+        graph.close();
+        graph.close();
+        try {
+            graph.getEdgeStart(0);
+        } catch (IllegalStateException e) {
+            refused = graph.isClosed();
+        }
+        try {
+            File file = File.createTempFile("offheap", ".bin");
+            file.deleteOnExit();
+            BinaryGraphUtil.write(expected, 0, file);
+            BinaryGraphUtil.MappedGraph mapped = BinaryGraphUtil.map(file);
+            boolean read = mapped.getEdgesCount() == expected.getEdgesCount()
+                    && mapped.getEdgeTarget(0) == expected.getEdgeTarget(0);
+            mapped.close();
+            try {
+                mapped.getEdgeTarget(0);
+                refused = false;
+            } catch (IllegalStateException e) {
+                refused &= read;
+            }
+        } catch (IOException e) {
+            refused = false;
+        }
+        if (refused) {
+            System.out.println("✓ Off-Heap Graph Test 2 PASSED: access after close throws");
+        } else {
+            System.out.println("✗ Off-Heap Graph Test 2 FAILED");
+        }
+    }
+
+    private static void testCompressedGraph() {
+        System.out.println("\n6c. Testing Compressed Graph...");
+
+        // Test 1: a grid-like road graph shrinks at least 3x and gives the same distances
+        int side = 120;
+        Random random = new Random(22);
+        Graph.Builder builder = Graph.builder(side * side);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int u = y * side + x;
+                if (x + 1 < side) {
+                    builder.addEdge(u, u + 1, 1 + random.nextInt(100));
+                }
+                if (y + 1 < side) {
+                    builder.addEdge(u, u + side, 1 + random.nextInt(100));
+                }
+            }
+        }
+        Graph grid = builder.build();
+        CompressedGraph compressed = CompressedGraph.of(grid);
+        long csrBytes = 4L * (2L * (grid.getVerticesCount() + 1) + 4L * grid.getEdgesCount());
+        double ratio = (double) csrBytes / compressed.getSizeBytes();
+        boolean same = Arrays.equals(new CompressedShortestPath(compressed).shortestPathsFromSource(0).getDistances(),
+                new DAGShortestPath(grid).shortestPathsFromSource(0).getDistances())
+                && Arrays.equals(new CompressedShortestPath(compressed).longestPathsFromSource(side).getDistances(),
+                new DAGShortestPath(grid).longestPathsFromSource(side).getDistances());
+        if (same && ratio >= 3) {
+            System.out.println("✓ Compressed Graph Test 1 PASSED: " + String.format("%.1f", ratio)
+                    + "x smaller than CSR, same distances");
+        } else {
+            System.out.println("✗ Compressed Graph Test 1 FAILED: ratio=" + ratio + ", same=" + same);
+        }
+
+        // Test 2: cycles, self-loops, parallel edges and weights too wide to pack survive the round trip
+        int n = 400;
+        Graph.Builder cyclic = Graph.builder(n);
+        for (int i = 0; i < 3 * n; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextBoolean() ? random.nextInt(n) : (u + 1) % n;
+            cyclic.addEdge(u, v, random.nextInt(2_000_001) - 1_000_000);
+        }
+        cyclic.addEdge(5, 5, Integer.MIN_VALUE).addEdge(7, 3, Integer.MAX_VALUE).addEdge(7, 3, Integer.MAX_VALUE);
+        Graph graph = cyclic.build();
+        Graph expanded = CompressedGraph.of(graph).toGraph();
+        boolean roundTrip = expanded.getEdgesCount() == graph.getEdgesCount();
+        for (int u = 0; u < n && roundTrip; u++) {
+            long[] a = new long[graph.getOutDegree(u)];
+            long[] b = new long[expanded.getOutDegree(u)];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = (long) graph.getEdgeTarget(graph.getEdgeStart(u) + i) << 32
+                        ^ graph.getEdgeWeight(graph.getEdgeStart(u) + i);
+            }
+            for (int i = 0; i < b.length; i++) {
+                b[i] = (long) expanded.getEdgeTarget(expanded.getEdgeStart(u) + i) << 32
+                        ^ expanded.getEdgeWeight(expanded.getEdgeStart(u) + i);
+            }
+            Arrays.sort(a);
+            Arrays.sort(b);
+            roundTrip = Arrays.equals(a, b);
+        }
+        SCCFinder.SCCResult sccs = new CompressedSCC(CompressedGraph.of(graph)).findSCCs();
+        boolean partition = samePartition(sccs, new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs(), n)
+                && isTopologicalOrder(graph, sccs);
+        if (roundTrip && partition) {
+            System.out.println("✓ Compressed Graph Test 2 PASSED: exact round trip, " + sccs.getComponentCount()
+                    + " SCCs match Tarjan");
+        } else {
+            System.out.println("✗ Compressed Graph Test 2 FAILED: roundTrip=" + roundTrip + ", partition=" + partition);
+        }
+    }
+
+    private static void testSyntheticGenerator() {
+        System.out.println("\n7. Testing Synthetic Generator...");
+
+        DataGenerator.SyntheticConfig config = new DataGenerator.SyntheticConfig(2000, 10000)
+                .seed(7)
+                .plantedSccs(5, 10)
+                .sccEdgeFraction(0.3)
+                .layers(40, 2)
+                .powerLawDegrees(2.2)
+                .weights(DataGenerator.WeightDistribution.EXPONENTIAL, 1, 20);
+
+        // Test 1: exact edge count, planted SCCs found, same seed gives the same edges
+        EdgeList first = DataGenerator.generateEdgeList(config);
+        EdgeList second = DataGenerator.generateEdgeList(config);
+        boolean same = first.size() == second.size();
+        for (int i = 0; i < first.size() && same; i++) {
+            same = first.getFrom(i) == second.getFrom(i) && first.getTo(i) == second.getTo(i)
+                    && first.getWeight(i) == second.getWeight(i);
+        }
+        Graph graph = first.toGraph();
+        int planted = 0;
+        for (List<Integer> scc : new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs().getComponents()) {
+            if (scc.size() > 1) {
+                planted += scc.size() == 10 ? 1 : 100;
+            }
+        }
+        if (first.size() == 10000 && same && planted == 5) {
+            System.out.println("✓ Synthetic Generator Test 1 PASSED: 10000 edges, 5 planted SCCs, reproducible");
+        } else {
+            System.out.println("✗ Synthetic Generator Test 1 FAILED: edges=" + first.size() + ", same=" + same
+                    + ", planted=" + planted);
+        }
+
+        // Test 2: streamed binary and JSON files hold the same graph
+        try {
+            File bin = File.createTempFile("synthetic", ".bin");
+            File json = File.createTempFile("synthetic", ".json");
+            bin.deleteOnExit();
+            json.deleteOnExit();
+            DataGenerator.writeBinary(config, bin);
+            DataGenerator.writeJson(config, json);
+            BinaryGraphUtil.MappedGraph mapped = BinaryGraphUtil.map(bin);
+            Graph parsed = JsonUtil.readEdgeList(json).toGraph();
+
+            boolean match = mapped.getEdgesCount() == graph.getEdgesCount() && parsed.getEdgesCount() == graph.getEdgesCount();
+            for (int e = 0; e < graph.getEdgesCount() && match; e++) {
+                match = mapped.getEdgeTarget(e) == graph.getEdgeTarget(e) && parsed.getEdgeTarget(e) == graph.getEdgeTarget(e)
+                        && mapped.getEdgeWeight(e) == graph.getEdgeWeight(e)
+                        && mapped.getReverseEdgeSource(e) == graph.getReverseEdgeSource(e);
+            }
+            if (match) {
+                System.out.println("✓ Synthetic Generator Test 2 PASSED: binary and JSON output agree");
+            } else {
+                System.out.println("✗ Synthetic Generator Test 2 FAILED");
+            }
+        } catch (IOException e) {
+            System.out.println("✗ Synthetic Generator Test 2 FAILED: " + e.getMessage());
+        }
+    }
+
+    private static void testMetrics() {
+        System.out.println("\n8. Testing Metrics...");
+
+        Graph graph = Graph.builder(3).addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(2, 0, 1).build();
+        SCCFinder finder = new SCCFinder(graph);
+        long operations = finder.findSCCs().getOperations();
+        boolean recorded = operations > 0 && finder.getPhaseNanos(Metrics.Phase.DFS_SECOND_PASS) > 0;
+        boolean idle = operations == 0 && finder.getPhaseNanos(Metrics.Phase.DFS_FIRST_PASS) == 0;
+        if (BaseMetrics.ENABLED ? recorded : idle) {
+            System.out.println("✓ Metrics Test PASSED: profiling " + (BaseMetrics.ENABLED ? "on" : "off")
+                    + ", " + operations + " operations");
+        } else {
+            System.out.println("✗ Metrics Test FAILED: " + finder);
+        }
+    }
+
+    private static void testBatchAnalyzer() {
+        System.out.println("\n9. Testing Batch Analyzer...");
+
+        try {
+            File dir = Files.createTempDirectory("batch").toFile();
+            dir.deleteOnExit();
+            String[] graphs = {
+                    "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 2}, {\"u\": 1, \"v\": 2, \"w\": 3}], \"source\": 0}",
+                    "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}, {\"u\": 1, \"v\": 0, \"w\": 1}, {\"u\": 1, \"v\": 2, \"w\": 4}], \"source\": 0}",
+                    "{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 5}]}"
+            };
+            for (int i = 0; i < graphs.length; i++) {
+                File file = new File(dir, "district_" + i + ".json");
+                file.deleteOnExit();
+                Files.write(file.toPath(), graphs[i].getBytes(StandardCharsets.UTF_8));
+            }
+            File reportFile = new File(dir, "report.out");
+            reportFile.deleteOnExit();
+
+            // A 4 KB budget forces every graph to wait for the previous one
+            BatchReport report = new BatchAnalyzer(2, 4096).analyzeDirectory(dir);
+            report.writeJson(reportFile);
+            List<BatchAnalyzer.GraphReport> results = report.getGraphs();
+            boolean ok = results.size() == 3 && report.getFailedCount() == 1
+                    && results.get(0).getCriticalPathLength() == 5 && results.get(0).getReachableFromSource() == 3
+                    && results.get(1).getSccCount() == 2 && results.get(1).isPathsOnCondensation()
+                    && !results.get(2).isOk()
+                    && new String(Files.readAllBytes(reportFile.toPath()), StandardCharsets.UTF_8).contains("\"graphs_failed\" : 1");
+            if (ok) {
+                System.out.println("✓ Batch Analyzer Test PASSED: 3 graphs, 1 failed, " + report.getExecutor() + " threads");
+            } else {
+                System.out.println("✗ Batch Analyzer Test FAILED");
+            }
+        } catch (IOException | InterruptedException e) {
+            System.out.println("✗ Batch Analyzer Test FAILED: " + e.getMessage());
+        }
+    }
+
+    private static void testAnalysisCache() {
+        System.out.println("\n10. Testing Analysis Cache...");
+
+        Graph graph = Graph.builder(5).addEdge(0, 1, 2).addEdge(1, 2, 3).addEdge(2, 0, 1).addEdge(2, 3, 4).addEdge(3, 4, 5).build();
+        Graph reordered = Graph.builder(5).addEdge(3, 4, 5).addEdge(2, 3, 4).addEdge(2, 0, 1).addEdge(1, 2, 3).addEdge(0, 1, 2).build();
+        Graph other = Graph.builder(5).addEdge(0, 1, 2).addEdge(1, 2, 3).addEdge(2, 0, 1).addEdge(2, 3, 4).addEdge(3, 4, 6).build();
+
+        // Test 1: same edges in another order hit, a changed weight misses and evicts the older entry
+        AnalysisCache cache = new AnalysisCache(200);
+        AnalysisCache.Analysis first = cache.get(graph);
+        AnalysisCache.Analysis second = cache.get(reordered);
+        cache.get(other);
+        AnalysisCache.CacheStats stats = cache.getStats();
+        if (first == second && first.getComponentCount() == 3 && stats.getHits() == 1 && stats.getMisses() == 2
+                && stats.getEvictions() == 1) {
+            System.out.println("✓ Analysis Cache Test 1 PASSED: " + stats);
+        } else {
+            System.out.println("✗ Analysis Cache Test 1 FAILED: " + stats);
+        }
+
+        // Test 2: a fresh cache over the same directory reads the entry back from disk
+        try {
+            File dir = Files.createTempDirectory("cache").toFile();
+            dir.deleteOnExit();
+            new AnalysisCache(1 << 20, dir).get(graph);
+            for (File file : dir.listFiles()) {
+                file.deleteOnExit();
+            }
+            AnalysisCache reopened = new AnalysisCache(1 << 20, dir);
+            AnalysisCache.Analysis loaded = reopened.get(graph);
+            if (reopened.getStats().getDiskHits() == 1 && loaded.getComponents().equals(first.getComponents())
+                    && Arrays.equals(loaded.getTopologicalOrder(), first.getTopologicalOrder())
+                    && loaded.getCondensation().getEdgesCount() == first.getCondensation().getEdgesCount()) {
+                System.out.println("✓ Analysis Cache Test 2 PASSED: disk tier round trip");
+            } else {
+                System.out.println("✗ Analysis Cache Test 2 FAILED: " + reopened.getStats());
+            }
+        } catch (IOException e) {
+            System.out.println("✗ Analysis Cache Test 2 FAILED: " + e.getMessage());
+        }
+
+        // Test 3: a disk tier that can no longer be written is skipped, and the analysis still comes back
+        try {
+            File dir = Files.createTempDirectory("cache").toFile();
+            AnalysisCache broken = new AnalysisCache(1 << 20, dir);
+            dir.delete();
+            AnalysisCache.Analysis analysis = broken.get(graph);
+            if (analysis.getComponentCount() == 3 && broken.getStats().getDiskWriteFailures() == 1
+                    && broken.getStats().getEntries() == 1) {
+                System.out.println("✓ Analysis Cache Test 3 PASSED: " + broken.getStats());
+            } else {
+                System.out.println("✗ Analysis Cache Test 3 FAILED: " + broken.getStats());
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("✗ Analysis Cache Test 3 FAILED: " + e);
+        }
+    }
+
+    private static void testQueryServer() {
+        System.out.println("\n11. Testing Query Server...");
+
+        QueryServer server = new QueryServer(new AnalysisCache(1 << 20));
+        try {
+            File file = Files.createTempFile("district", ".json").toFile();
+            file.deleteOnExit();
+            Files.write(file.toPath(), ("{\"n\": 4, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 2}, {\"u\": 1, \"v\": 3, \"w\": 2},"
+                    + " {\"u\": 0, \"v\": 2, \"w\": 1}, {\"u\": 2, \"v\": 3, \"w\": 1}]}").getBytes(StandardCharsets.UTF_8));
+            String name = server.load(file);
+            server.start(0, 2);
+            String base = "http://127.0.0.1:" + server.getPort();
+
+            // Test 1: shortest and longest path over HTTP, and a bad vertex is a client error
+            String shortest = httpGet(base + "/path?graph=" + name + "&from=0&to=3");
+            String longest = httpGet(base + "/path?graph=" + name + "&from=0&to=3&mode=longest");
+            String bad = httpGet(base + "/path?graph=" + name + "&from=0&to=9");
+            if (shortest.contains("\"distance\":2") && shortest.contains("\"path\":[0,2,3]")
+                    && longest.contains("\"distance\":4") && bad.startsWith("400")) {
+                System.out.println("✓ Query Server Test 1 PASSED: " + shortest);
+            } else {
+                System.out.println("✗ Query Server Test 1 FAILED: " + shortest + " / " + longest + " / " + bad);
+            }
+
+            // Test 2: a reload swaps in the new edges while the old snapshot stays usable
+            GraphSnapshot before = server.getSnapshot(name);
+            Files.write(file.toPath(), ("{\"n\": 4, \"edges\": [{\"u\": 0, \"v\": 3, \"w\": 7}]}")
+                    .getBytes(StandardCharsets.UTF_8));
+            String rejected = httpGet(base + "/reload?graph=" + name);
+            String reloaded = httpPost(base + "/reload?graph=" + name);
+            String after = httpGet(base + "/path?graph=" + name + "&from=0&to=3");
+            if (rejected.startsWith("405") && reloaded.contains("\"edges\":1") && after.contains("\"distance\":7")
+                    && server.getSnapshot(name).getVersion() > before.getVersion()
+                    && before.path(0, 3, false).getDistance() == 2) {
+                System.out.println("✓ Query Server Test 2 PASSED: " + after);
+            } else {
+                System.out.println("✗ Query Server Test 2 FAILED: " + rejected + " / " + reloaded + " / " + after);
+            }
+
+            // Test 3: on a cyclic graph paths run through the cycle over real vertices, and longest is refused
+            File cyclicFile = Files.createTempFile("loop", ".json").toFile();
+            cyclicFile.deleteOnExit();
+            Files.write(cyclicFile.toPath(), ("{\"n\": 4, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}, {\"u\": 1, \"v\": 2, \"w\": 2},"
+                    + " {\"u\": 2, \"v\": 1, \"w\": 3}, {\"u\": 2, \"v\": 3, \"w\": 4}]}").getBytes(StandardCharsets.UTF_8));
+            String cyclicName = server.load(cyclicFile);
+            String across = httpGet(base + "/path?graph=" + cyclicName + "&from=0&to=3");
+            String inside = httpGet(base + "/path?graph=" + cyclicName + "&from=2&to=1");
+            String longestCyclic = httpGet(base + "/path?graph=" + cyclicName + "&from=0&to=3&mode=longest");
+            if (across.contains("\"distance\":7") && across.contains("\"path\":[0,1,2,3]")
+                    && inside.contains("\"distance\":3") && inside.contains("\"path\":[2,1]")
+                    && longestCyclic.startsWith("400")) {
+                System.out.println("✓ Query Server Test 3 PASSED: " + across);
+            } else {
+                System.out.println("✗ Query Server Test 3 FAILED: " + across + " / " + inside + " / " + longestCyclic);
+            }
+        } catch (IOException e) {
+            System.out.println("✗ Query Server Test FAILED: " + e.getMessage());
+        } finally {
+            server.stop();
+        }
+    }
+
+    // Body of a GET request, prefixed with the status code unless it is 200
+    private static String httpGet(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        int status = connection.getResponseCode();
+        try (InputStream in = status == 200 ? connection.getInputStream() : connection.getErrorStream()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return status == 200 ? body : status + " " + body;
+        }
+    }
+
+    // Same as httpGet with an empty POST body
+    private static String httpPost(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.getOutputStream().close();
+        int status = connection.getResponseCode();
+        try (InputStream in = status == 200 ? connection.getInputStream() : connection.getErrorStream()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return status == 200 ? body : status + " " + body;
+        }
+    }
+
+    private static void testReachabilityIndex() {
+        System.out.println("\n12. Testing Reachability Index...");
+
+        // Mostly forward edges with some back edges, so there are both SCCs and a deep condensation
+        Random random = new Random(17);
+        int vertices = 600;
+        Graph.Builder builder = Graph.builder(vertices);
+        for (int i = 0; i < 1500; i++) {
+            int u = random.nextInt(vertices);
+            int v = random.nextInt(vertices);
+            if (u > v && random.nextInt(15) != 0) {
+                int t = u;
+                u = v;
+                v = t;
+            }
+            if (u != v) {
+                builder.addEdge(u, v, 1);
+            }
+        }
+        Graph graph = builder.build();
+        ReachabilityIndex index = new ReachabilityIndex(graph);
+
+        // Test 1: every pair agrees with a plain BFS
+        int mismatches = 0;
+        int reachable = 0;
+        for (int u = 0; u < vertices; u++) {
+            boolean[] seen = new boolean[vertices];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            seen[u] = true;
+            queue.add(u);
+            while (!queue.isEmpty()) {
+                int x = queue.poll();
+                for (int e = graph.getEdgeStart(x); e < graph.getEdgeEnd(x); e++) {
+                    if (!seen[graph.getEdgeTarget(e)]) {
+                        seen[graph.getEdgeTarget(e)] = true;
+                        queue.add(graph.getEdgeTarget(e));
+                    }
+                }
+            }
+            for (int v = 0; v < vertices; v++) {
+                if (index.reaches(u, v) != seen[v]) {
+                    mismatches++;
+                }
+                if (seen[v]) {
+                    reachable++;
+                }
+            }
+        }
+        if (mismatches == 0 && index.getComponentCount() < vertices) {
+            System.out.println("✓ Reachability Index Test 1 PASSED: " + reachable + " reachable pairs, "
+                    + index.getComponentCount() + " components");
+        } else {
+            System.out.println("✗ Reachability Index Test 1 FAILED: " + mismatches + " mismatches");
+        }
+
+        // Test 2: a cycle reaches both ways, the vertex after it only forwards
+        Graph cycle = Graph.builder(4).addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(2, 0, 1).addEdge(2, 3, 1).build();
+        ReachabilityIndex small = new ReachabilityIndex(cycle);
+        if (small.reaches(2, 1) && small.reaches(0, 3) && !small.reaches(3, 0) && small.getComponentCount() == 2) {
+            System.out.println("✓ Reachability Index Test 2 PASSED");
+        } else {
+            System.out.println("✗ Reachability Index Test 2 FAILED");
+        }
+    }
+    private static void testVertexReordering() {
+        System.out.println("\n13. Testing Vertex Reordering...");
+
+        // Test 1: on a DAG every strategy maps distances, orders and the critical path back to the original ids
+        Random random = new Random(23);
+        int n = 500;
+        Graph.Builder builder = Graph.builder(n);
+        Set<Long> added = new HashSet<>();
+        for (int i = 0; i < 4 * n; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            // No parallel edges, so a path's weight can be checked with getWeight
+            if (added.add((long) u * n + v)) {
+                builder.addEdge(u, v, 1 + random.nextInt(30));
+            }
+        }
+        Graph dag = builder.build();
+        DAGShortestPath.ShortestPathResult shortest = new DAGShortestPath(dag).shortestPathsFromSource(3);
+        DAGShortestPath.ShortestPathResult longest = new DAGShortestPath(dag).longestPathsFromSource(3);
+        int critical = new DAGShortestPath(dag).findCriticalPath().getLength();
+        List<String> failed = new ArrayList<>();
+        for (VertexReordering.Strategy strategy : VertexReordering.Strategy.values()) {
+            VertexReordering reordering = VertexReordering.of(dag, strategy);
+            Graph graph = reordering.getGraph();
+            int source = reordering.toReordered(3);
+            DAGShortestPath.ShortestPathResult mapped = reordering.toOriginal(
+                    new DAGShortestPath(graph).shortestPathsFromSource(source));
+            DAGShortestPath.ShortestPathResult mappedLongest = reordering.toOriginal(
+                    new DAGShortestPath(graph).longestPathsFromSource(source));
+            DAGShortestPath.CriticalPathResult path = reordering.toOriginal(new DAGShortestPath(graph).findCriticalPath());
+            boolean ok = Arrays.equals(mapped.getDistances(), shortest.getDistances())
+                    && Arrays.equals(mappedLongest.getDistances(), longest.getDistances())
+                    && path.getLength() == critical && isPath(dag, path.getPath(), critical)
+                    && isTopologicalOrder(dag, reordering.toOriginal(new TopologicalSort(graph).kahnTopologicalSort()).getOrder());
+            // Following the mapped predecessors must retrace a shortest path in the original graph
+            for (int v = 0; v < n && ok; v++) {
+                int p = mapped.getPredecessors()[v];
+                ok = p == -1 || mapped.getDistances()[v] == mapped.getDistances()[p] + dag.getWeight(p, v);
+            }
+            if (!ok) {
+                failed.add(strategy.name());
+            }
+        }
+        if (failed.isEmpty()) {
+            System.out.println("✓ Vertex Reordering Test 1 PASSED: all " + VertexReordering.Strategy.values().length
+                    + " strategies map results back");
+        } else {
+            System.out.println("✗ Vertex Reordering Test 1 FAILED: " + failed);
+        }
+
+        // Test 2: components survive relabelling, and the topological strategy numbers them in order
+        Graph.Builder cyclic = Graph.builder(n);
+        for (int i = 0; i < 3 * n; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u > v && random.nextInt(10) != 0) {
+                int t = u;
+                u = v;
+                v = t;
+            }
+            cyclic.addEdge(u, v, 1);
+        }
+        Graph graph = cyclic.build();
+        SCCFinder.SCCResult expected = new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs();
+        VertexReordering topological = VertexReordering.of(graph, VertexReordering.Strategy.TOPOLOGICAL);
+        SCCFinder.SCCResult mapped = topological.toOriginal(
+                new SCCFinder(topological.getGraph(), SCCFinder.Algorithm.TARJAN).findSCCs());
+        boolean forward = true;
+        Graph relabelled = topological.getGraph();
+        int[] componentOf = new SCCFinder(relabelled, SCCFinder.Algorithm.TARJAN).findSCCs().getComponentOf();
+        for (int u = 0; u < n && forward; u++) {
+            for (int e = relabelled.getEdgeStart(u); e < relabelled.getEdgeEnd(u) && forward; e++) {
+                int v = relabelled.getEdgeTarget(e);
+                forward = componentOf[u] == componentOf[v] || u < v;
+            }
+        }
+        if (samePartition(mapped, expected, n) && isTopologicalOrder(graph, mapped) && forward
+                && expected.getComponentCount() < n) {
+            System.out.println("✓ Vertex Reordering Test 2 PASSED: " + expected.getComponentCount()
+                    + " SCCs, edges between them point forward");
+        } else {
+            System.out.println("✗ Vertex Reordering Test 2 FAILED");
+        }
+    }
+
+    private static boolean isPath(Graph graph, List<Integer> path, int length) {
+        int total = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int weight = graph.getWeight(path.get(i), path.get(i + 1));
+            if (weight < 0) {
+                return false;
+            }
+            total += weight;
+        }
+        return total == length;
     }
 }
\ No newline at end of file
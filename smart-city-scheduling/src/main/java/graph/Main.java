@@ -1,18 +1,133 @@
 package graph;
 
+import graph.batch.BatchAnalyzer;
+import graph.batch.BatchReport;
+import graph.cache.AnalysisCache;
+import graph.common.BaseMetrics;
 import graph.common.Graph;
+import graph.common.Metrics;
 import graph.scc.SCCFinder;
+import graph.schedule.ListScheduler;
+import graph.server.QueryServer;
 import graph.topo.TopologicalSort;
 import graph.dagsp.DAGShortestPath;
+import graph.dagsp.HybridShortestPath;
+import graph.util.BinaryGraphUtil;
 import graph.util.DataGenerator;
 import graph.util.JsonUtil;
-import graph.model.GraphData;
+import graph.util.TextGraphUtil;
+import graph.model.EdgeList;
+import java.io.File;
 import java.util.*;
 
 public class Main {
+    private static final int CREWS = 2;
+
     public static void main(String[] args) {
         System.out.println("=== Smart City Scheduling System ===");
 
+        // convert <graph.json|edges.txt|.csv|.tsv> <graph.bin>
+        if (args.length == 3 && "convert".equals(args[0])) {
+            try {
+                if (args[1].endsWith(".json")) {
+                    BinaryGraphUtil.convertJson(args[1], args[2]);
+                } else {
+                    BinaryGraphUtil.write(TextGraphUtil.read(new File(args[1])), null, new File(args[2]));
+                }
+                System.out.println("✓ Converted " + args[1] + " to " + args[2]);
+            } catch (Exception e) {
+                System.out.println("Conversion failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        // synthetic <vertices> <edges> <out.json|out.bin> [seed]
+        if ((args.length == 4 || args.length == 5) && "synthetic".equals(args[0])) {
+            try {
+                DataGenerator.SyntheticConfig config = new DataGenerator.SyntheticConfig(
+                        Integer.parseInt(args[1]), Long.parseLong(args[2]))
+                        .powerLawDegrees(2.5);
+                if (args.length == 5) {
+                    config.seed(Long.parseLong(args[4]));
+                }
+                File out = new File(args[3]);
+                if (args[3].endsWith(".bin")) {
+                    DataGenerator.writeBinary(config, out);
+                } else {
+                    DataGenerator.writeJson(config, out);
+                }
+                System.out.println("✓ Generated " + args[3]);
+            } catch (Exception e) {
+                System.out.println("Generation failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        // batch <dir> [report.json] [threads] [memoryMB]
+        if (args.length >= 2 && args.length <= 5 && "batch".equals(args[0])) {
+            try {
+                File report = new File(args.length > 2 ? args[2] : "batch-report.json");
+                int threads = args.length > 3 ? Integer.parseInt(args[3])
+                        : Runtime.getRuntime().availableProcessors();
+                long budget = args.length > 4 ? Long.parseLong(args[4]) << 20 : BatchAnalyzer.defaultMemoryBudget();
+                BatchAnalyzer analyzer = new BatchAnalyzer(threads, budget);
+                // -Dgraph.cache.dir keeps SCCs and condensations between runs
+                String cacheDir = System.getProperty("graph.cache.dir");
+                AnalysisCache cache = new AnalysisCache(budget / 4, cacheDir != null ? new File(cacheDir) : null);
+                analyzer.setCache(cache);
+                BatchReport result = analyzer.analyzeDirectory(new File(args[1]));
+                result.writeJson(report);
+                System.out.printf("✓ Analysed %d graphs (%d failed) in %,d ms on %d %s threads, report: %s\n",
+                        result.getGraphs().size(), result.getFailedCount(), result.getWallNanos() / 1_000_000,
+                        threads, result.getExecutor(), report.getPath());
+                System.out.println("  Cache: " + cache.getStats());
+            } catch (Exception e) {
+                System.out.println("Batch failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        // serve <port> <graph.json|graph.bin>...
+        if (args.length >= 3 && "serve".equals(args[0])) {
+            try {
+                QueryServer server = new QueryServer(new AnalysisCache(Runtime.getRuntime().maxMemory() / 4));
+                for (int i = 2; i < args.length; i++) {
+                    System.out.println("Loaded " + server.load(new File(args[i])));
+                }
+                server.start(Integer.parseInt(args[1]), Runtime.getRuntime().availableProcessors());
+                server.watch(1000);
+                System.out.println("✓ Serving on http://127.0.0.1:" + server.getPort()
+                        + " (/graphs, /path, /reachable, /critical, POST /reload)");
+            } catch (Exception e) {
+                System.out.println("Server failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        // analyze <graph.bin>
+        if (args.length == 2 && "analyze".equals(args[0]) && args[1].endsWith(".bin")) {
+            try (BinaryGraphUtil.MappedGraph graph = BinaryGraphUtil.map(new File(args[1]))) {
+                analyzeGraph(graph, graph.getSource());
+            } catch (Exception e) {
+                System.out.println("Analysis failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        // analyze <edges.txt|.csv|.tsv>
+        if (args.length == 2 && "analyze".equals(args[0]) && args[1].matches(".*\\.(txt|csv|tsv)")) {
+            try {
+                long start = System.nanoTime();
+                Graph graph = TextGraphUtil.read(new File(args[1]));
+                System.out.printf("✓ Loaded %,d vertices and %,d edges in %,d ms\n", graph.getVerticesCount(),
+                        graph.getEdgesCount(), (System.nanoTime() - start) / 1_000_000);
+                analyzeGraph(graph, null);
+            } catch (Exception e) {
+                System.out.println("Analysis failed: " + e.getMessage());
+            }
+            return;
+        }
+
         // generate
         System.out.println("1. Generating All Datasets...");
         try {
@@ -28,10 +143,11 @@ public class Main {
         // test with tasks.json
         System.out.println("\n2. Testing with json...");
         try {
-            GraphData tasksData = JsonUtil.readGraphData("data/tasks.json");
-            Graph graph = createGraphFromData(tasksData);
+            EdgeList tasksData = JsonUtil.readEdgeList("data/tasks.json");
+            Graph graph = tasksData.toGraph();
             analyzeGraph(graph, tasksData.getSource());
         } catch (Exception e) {
+            System.out.println(e.getMessage());
             System.out.println("Using fallback test graph...");
             Graph graph = createTestGraph();
             analyzeGraph(graph, 0);
@@ -54,11 +170,11 @@ public class Main {
         for (int i = 0; i < sccs.size(); i++) {
             System.out.println("  SCC " + i + ": " + sccs.get(i) + " (size: " + sccs.get(i).size() + ")");
         }
-        System.out.printf("Operations: %,d, Time: %,d ns\n",
-                sccResult.getOperations(), sccResult.getTimeNanos());
+        printMetrics(sccFinder, sccResult.getOperations(), sccResult.getTimeNanos());
 
         // build condensation graph
-        Graph condensation = sccFinder.buildCondensationGraph(sccs);
+        SCCFinder.CondensationResult condensed = sccFinder.condense(sccs, SCCFinder.WeightAggregation.MIN);
+        Graph condensation = condensed.getGraph();
         System.out.println("Condensation graph: " + condensation.getVerticesCount() +
                 " vertices, " + condensation.getEdgesCount() + " edges");
 
@@ -68,8 +184,9 @@ public class Main {
             TopologicalSort topo = new TopologicalSort(condensation); //
             TopologicalSort.TopoResult topoResult = topo.kahnTopologicalSort();
             System.out.println("Topological order of components: " + topoResult.getOrder());
-            System.out.printf("Operations: %,d, Time: %,d ns\n",
-                    topoResult.getOperations(), topoResult.getTimeNanos());
+            printMetrics(topo, topoResult.getOperations(), topoResult.getTimeNanos());
+            System.out.println("Wavefronts (components that can run concurrently): "
+                    + topo.levelTopologicalSort().getLevels());
 
             // Show derived order of original tasks
             System.out.println("\n5. Derived Order of Original Tasks:");
@@ -80,28 +197,56 @@ public class Main {
             System.out.println("Cannot perform topological sort: " + e.getMessage());
         }
 
-        // shortest Paths on ORIGINAL GRAPH
+        // shortest Paths on ORIGINAL GRAPH, cycles included
         if (source != null) {
             System.out.println("\n6. Shortest Paths from source " + source + ":");
-            DAGShortestPath sp = new DAGShortestPath(graph);
-
-            DAGShortestPath.ShortestPathResult shortest = sp.shortestPathsFromSource(source);
+            HybridShortestPath hybrid = new HybridShortestPath(graph);
+            HybridShortestPath.DistanceResult shortest = hybrid.shortestPathsFromSource(source);
             System.out.println("Shortest distances:");
             for (int i = 0; i < shortest.getDistances().length; i++) {
-                int dist = shortest.getDistances()[i];
+                long dist = shortest.getDistances()[i];
                 System.out.printf("  to %d: %s\n", i,
-                        dist == Integer.MAX_VALUE ? "INF" : String.valueOf(dist));
+                        dist == HybridShortestPath.UNREACHABLE ? "INF" : String.valueOf(dist));
             }
-            System.out.printf("Operations: %,d, Time: %,d ns\n",
-                    shortest.getOperations(), shortest.getTimeNanos());
+            printMetrics(hybrid, shortest.getOperations(), shortest.getTimeNanos());
 
-            // critical path long
-            System.out.println("\n7. Critical Path Analysis:");
+            // Critical path and schedule need a DAG; on a cyclic graph both run over components
+            boolean acyclic = sccs.size() == graph.getVerticesCount() && !graph.hasSelfLoops();
+            DAGShortestPath sp = new DAGShortestPath(acyclic ? graph : condensation);
+            System.out.println("\n7. Critical Path Analysis" + (acyclic ? ":" : " (condensation graph):"));
             DAGShortestPath.CriticalPathResult critical = sp.findCriticalPath();
             System.out.println("Critical path: " + critical.getPath());
             System.out.println("Critical path length: " + critical.getLength());
-            System.out.printf("Operations: %,d, Time: %,d ns\n",
-                    critical.getOperations(), critical.getTimeNanos());
+            System.out.println("Slack per task: " + Arrays.toString(critical.getSlack()));
+            printMetrics(sp, critical.getOperations(), critical.getTimeNanos());
+
+            // list schedule on a fixed crew count; a component's tasks run back to back as one job
+            System.out.println("\n8. Schedule on " + CREWS + " crews" + (acyclic ? ":" : " (one job per component):"));
+            ListScheduler scheduler = new ListScheduler(graph);
+            ListScheduler.ScheduleResult schedule = acyclic
+                    ? scheduler.schedule(CREWS)
+                    : scheduler.scheduleCondensed(CREWS, condensed);
+            for (int task : schedule.getDispatchOrder()) {
+                String label = acyclic ? "task " + task : "component " + task + " " + sccs.get(task);
+                System.out.printf("  %s: crew %d, %d-%d\n", label, schedule.getWorker()[task],
+                        schedule.getStart()[task], schedule.getFinish()[task]);
+            }
+            System.out.println("Makespan: " + schedule.getMakespan());
+            printMetrics(scheduler, schedule.getOperations(), schedule.getTimeNanos());
+        }
+    }
+
+    // Operation counts and phase times are only collected with -Dgraph.metrics=true
+    private static void printMetrics(Metrics metrics, long operations, long timeNanos) {
+        if (!BaseMetrics.ENABLED) {
+            System.out.printf("Time: %,d ns\n", timeNanos);
+            return;
+        }
+        System.out.printf("Operations: %,d, Time: %,d ns\n", operations, timeNanos);
+        for (Metrics.Phase phase : Metrics.Phase.values()) {
+            if (metrics.getPhaseNanos(phase) > 0) {
+                System.out.printf("  %s: %,d ns\n", phase, metrics.getPhaseNanos(phase));
+            }
         }
     }
 
@@ -113,16 +258,8 @@ public class Main {
         return originalOrder;
     }
 
-    private static Graph createGraphFromData(GraphData graphData) {
-        Graph graph = new Graph(graphData.getVertices());
-        for (GraphData.Edge edge : graphData.getEdges()) {
-            graph.addEdge(edge.getFrom(), edge.getTo(), edge.getWeight());
-        }
-        return graph;
-    }
-
     private static Graph createTestGraph() {
-        Graph graph = new Graph(6);
+        Graph.Builder graph = Graph.builder(6);
 
         // create a simple DAG for testing
         graph.addEdge(0, 1, 5);
@@ -133,6 +270,6 @@ public class Main {
         graph.addEdge(3, 5, 1);
         graph.addEdge(4, 5, 2);
 
-        return graph;
+        return graph.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package graph.batch;
+
+import graph.cache.AnalysisCache;
+import graph.cache.GraphHash;
+import graph.common.Graph;
+import graph.dagsp.DAGShortestPath;
+import graph.model.EdgeList;
+import graph.scc.SCCFinder;
+import graph.topo.TopologicalSort;
+import graph.util.BinaryGraphUtil;
+import graph.util.JsonUtil;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the SCC -> condensation -> topological order -> shortest/critical path pipeline over every
+ * .json and .bin graph in a directory. At most {@code concurrency} graphs are analysed at once, on virtual
+ * threads when the JVM has them (Java 21+) and on a fixed pool otherwise. Each graph also reserves its
+ * estimated heap footprint from a shared memory budget, so a few huge graphs run alone instead of together.
+ */
+public class BatchAnalyzer {
+    private static final long KB = 1024;
+
+    // Rough heap bytes per file byte: JSON text is about as long as EdgeList + CSR + per-vertex results,
+    // a mapped binary file keeps its edges off-heap and only needs the per-vertex arrays
+    private static final int JSON_FOOTPRINT = 2;
+    private static final int BINARY_FOOTPRINT = 1;
+
+    private final int concurrency;
+    private final long memoryBudget;
+    private AnalysisCache cache;
+
+    public BatchAnalyzer(int concurrency, long memoryBudget) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        if (memoryBudget < KB) {
+            throw new IllegalArgumentException("Memory budget must be at least 1 KB: " + memoryBudget);
+        }
+        this.concurrency = concurrency;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Reuses SCCs and condensations of graphs seen before, in this run or, with a disk tier, earlier ones.
+     */
+    public void setCache(AnalysisCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Default budget: half of the maximum heap.
+     */
+    public static long defaultMemoryBudget() {
+        return Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    public BatchReport analyzeDirectory(File directory) throws InterruptedException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".json") || name.endsWith(".bin"));
+        if (files == null) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        Arrays.sort(files);
+
+        int budgetKb = (int) Math.min(Integer.MAX_VALUE, memoryBudget / KB);
+        Semaphore slots = new Semaphore(concurrency);
+        Semaphore memory = new Semaphore(budgetKb, true);
+        ExecutorService executor;
+        String executorKind;
+        try {
+            // Java 21+: one virtual thread per graph, the slot semaphore bounds how many run
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            executorKind = "virtual";
+        } catch (ReflectiveOperationException e) {
+            executor = Executors.newFixedThreadPool(concurrency);
+            executorKind = "platform";
+        }
+
+        long start = System.nanoTime();
+        List<Future<GraphReport>> futures = new ArrayList<>(files.length);
+        List<GraphReport> reports = new ArrayList<>(files.length);
+        try {
+            for (File file : files) {
+                futures.add(executor.submit(() -> analyzeWithinBudget(file, slots, memory, budgetKb)));
+            }
+            for (Future<GraphReport> future : futures) {
+                reports.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch task failed outside the pipeline", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        BatchReport report = new BatchReport(directory.getPath(), reports, System.nanoTime() - start,
+                concurrency, memoryBudget, executorKind);
+        if (cache != null) {
+            report.setCacheStats(cache.getStats().toString());
+        }
+        return report;
+    }
+
+    private GraphReport analyzeWithinBudget(File file, Semaphore slots, Semaphore memory, int budgetKb)
+            throws InterruptedException {
+        int footprint = file.getName().endsWith(".bin") ? BINARY_FOOTPRINT : JSON_FOOTPRINT;
+        // A graph larger than the whole budget takes all of it and runs alone
+        int permits = (int) Math.max(1, Math.min(budgetKb, file.length() * footprint / KB));
+        slots.acquire();
+        try {
+            memory.acquire(permits);
+            try {
+                return analyze(file, permits * KB, cache);
+            } finally {
+                memory.release(permits);
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Runs the whole pipeline on one file. Failures are reported per graph and never abort the batch.
+     */
+    public static GraphReport analyze(File file, long reservedBytes, AnalysisCache cache) {
+        GraphReport report = new GraphReport(file.getName(), reservedBytes);
+        long start = System.nanoTime();
+        BinaryGraphUtil.MappedGraph mapped = null;
+        try {
+            Graph graph;
+            Integer source;
+            if (file.getName().endsWith(".bin")) {
+                mapped = BinaryGraphUtil.map(file);
+                graph = mapped;
+                source = mapped.getSource();
+            } else {
+                EdgeList edges = JsonUtil.readEdgeList(file);
+                graph = edges.toGraph();
+                source = edges.getSource();
+            }
+            report.vertices = graph.getVerticesCount();
+            report.edges = graph.getEdgesCount();
+            report.loadNanos = System.nanoTime() - start;
+
+            long stage = System.nanoTime();
+            int[] componentOf;
+            Graph condensation;
+            if (cache != null) {
+                // A memory or disk hit skips SCC and condensation; the lookup time is reported as the SCC stage
+                String key = GraphHash.of(graph);
+                AnalysisCache.Analysis analysis = cache.getIfPresent(key);
+                report.cacheHit = analysis != null;
+                if (analysis == null) {
+                    analysis = cache.get(key, graph);
+                }
+                componentOf = analysis.getComponentOf();
+                report.sccCount = analysis.getComponentCount();
+                condensation = analysis.getCondensation();
+                report.sccNanos = System.nanoTime() - stage;
+            } else {
+                SCCFinder finder = new SCCFinder(graph, SCCFinder.Algorithm.TARJAN);
+                SCCFinder.SCCResult sccs = finder.findSCCs();
+                report.sccCount = sccs.getComponentCount();
+                report.sccNanos = System.nanoTime() - stage;
+
+                stage = System.nanoTime();
+                SCCFinder.CondensationResult condensed = finder.condense(sccs, SCCFinder.WeightAggregation.MIN);
+                componentOf = condensed.getComponentOf();
+                condensation = condensed.getGraph();
+                report.condensationNanos = System.nanoTime() - stage;
+            }
+            int[] sizes = new int[report.sccCount];
+            report.largestScc = 0;
+            for (int c : componentOf) {
+                report.largestScc = Math.max(report.largestScc, ++sizes[c]);
+            }
+            report.condensationEdges = condensation.getEdgesCount();
+
+            stage = System.nanoTime();
+            TopologicalSort topo = new TopologicalSort(condensation);
+            topo.setPool(null);
+            report.topoLevels = topo.levelTopologicalSort().getLevelCount();
+            report.topoNanos = System.nanoTime() - stage;
+
+            // Paths run on the graph itself when it is acyclic, otherwise on its condensation
+            stage = System.nanoTime();
+            boolean dag = report.sccCount == graph.getVerticesCount() && !graph.hasSelfLoops();
+            Graph pathGraph = dag ? graph : condensation;
+            DAGShortestPath paths = new DAGShortestPath(pathGraph);
+            if (source != null && source >= 0 && source < graph.getVerticesCount()) {
+                int[] distances = paths.shortestPathsFromSource(dag ? source : componentOf[source]).getDistances();
+                report.reachableFromSource = 0;
+                for (int d : distances) {
+                    if (d != Integer.MAX_VALUE) {
+                        report.reachableFromSource++;
+                    }
+                }
+            }
+            report.criticalPathLength = paths.findCriticalPath().getLength();
+            report.pathsOnCondensation = !dag;
+            report.pathNanos = System.nanoTime() - stage;
+        } catch (Exception | StackOverflowError e) {
+            report.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        } finally {
+            // Unmap now rather than at some later GC, so the pages of finished graphs do not pile up
+            if (mapped != null) {
+                mapped.close();
+            }
+        }
+        report.totalNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Per-graph outcome; counts are -1 for stages that did not run. On the condensation,
+     * reachability and the critical path count components rather than vertices.
+     */
+    public static class GraphReport {
+        private final String file;
+        private final long reservedBytes;
+        private int vertices = -1;
+        private int edges = -1;
+        private int sccCount = -1;
+        private int largestScc = -1;
+        private int condensationEdges = -1;
+        private int topoLevels = -1;
+        private int reachableFromSource = -1;
+        private int criticalPathLength = -1;
+        private boolean pathsOnCondensation;
+        private boolean cacheHit;
+        private long loadNanos;
+        private long sccNanos;
+        private long condensationNanos;
+        private long topoNanos;
+        private long pathNanos;
+        private long totalNanos;
+        private String error;
+
+        GraphReport(String file, long reservedBytes) {
+            this.file = file;
+            this.reservedBytes = reservedBytes;
+        }
+
+        public String getFile() { return file; }
+        public long getReservedBytes() { return reservedBytes; }
+        public int getVertices() { return vertices; }
+        public int getEdges() { return edges; }
+        public int getSccCount() { return sccCount; }
+        public int getLargestScc() { return largestScc; }
+        public int getCondensationEdges() { return condensationEdges; }
+        public int getTopoLevels() { return topoLevels; }
+        public int getReachableFromSource() { return reachableFromSource; }
+        public int getCriticalPathLength() { return criticalPathLength; }
+        public boolean isPathsOnCondensation() { return pathsOnCondensation; }
+        public boolean isCacheHit() { return cacheHit; }
+        public long getLoadNanos() { return loadNanos; }
+        public long getSccNanos() { return sccNanos; }
+        public long getCondensationNanos() { return condensationNanos; }
+        public long getTopoNanos() { return topoNanos; }
+        public long getPathNanos() { return pathNanos; }
+        public long getTotalNanos() { return totalNanos; }
+        public String getError() { return error; }
+        public boolean isOk() { return error == null; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package graph.batch;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Aggregated result of one batch run, written as a single JSON document.
+ */
+public class BatchReport {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final String directory;
+    private final List<BatchAnalyzer.GraphReport> graphs;
+    private final long wallNanos;
+    private final int concurrency;
+    private final long memoryBudget;
+    private final String executor;
+    private String cacheStats;
+
+    public BatchReport(String directory, List<BatchAnalyzer.GraphReport> graphs, long wallNanos,
+                       int concurrency, long memoryBudget, String executor) {
+        this.directory = directory;
+        this.graphs = graphs;
+        this.wallNanos = wallNanos;
+        this.concurrency = concurrency;
+        this.memoryBudget = memoryBudget;
+        this.executor = executor;
+    }
+
+    public List<BatchAnalyzer.GraphReport> getGraphs() { return graphs; }
+    public long getWallNanos() { return wallNanos; }
+    public String getExecutor() { return executor; }
+
+    void setCacheStats(String cacheStats) {
+        this.cacheStats = cacheStats;
+    }
+
+    public int getFailedCount() {
+        int failed = 0;
+        for (BatchAnalyzer.GraphReport graph : graphs) {
+            if (!graph.isOk()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Sum of per-graph pipeline times; compared with the wall time it shows the achieved concurrency.
+     */
+    public long getCpuNanos() {
+        long total = 0;
+        for (BatchAnalyzer.GraphReport graph : graphs) {
+            total += graph.getTotalNanos();
+        }
+        return total;
+    }
+
+    public void writeJson(File file) throws IOException {
+        try (JsonGenerator json = FACTORY.createGenerator(file, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("directory", directory);
+            json.writeStringField("executor", executor);
+            json.writeNumberField("concurrency", concurrency);
+            json.writeNumberField("memory_budget_bytes", memoryBudget);
+            json.writeNumberField("graphs_total", graphs.size());
+            json.writeNumberField("graphs_failed", getFailedCount());
+            json.writeNumberField("wall_nanos", wallNanos);
+            json.writeNumberField("pipeline_nanos_sum", getCpuNanos());
+            if (cacheStats != null) {
+                json.writeStringField("cache", cacheStats);
+            }
+
+            json.writeArrayFieldStart("graphs");
+            for (BatchAnalyzer.GraphReport graph : graphs) {
+                json.writeStartObject();
+                json.writeStringField("file", graph.getFile());
+                json.writeStringField("status", graph.isOk() ? "ok" : "error");
+                if (!graph.isOk()) {
+                    json.writeStringField("error", graph.getError());
+                }
+                json.writeNumberField("reserved_bytes", graph.getReservedBytes());
+                json.writeNumberField("vertices", graph.getVertices());
+                json.writeNumberField("edges", graph.getEdges());
+                json.writeNumberField("scc_count", graph.getSccCount());
+                json.writeNumberField("largest_scc", graph.getLargestScc());
+                json.writeNumberField("condensation_edges", graph.getCondensationEdges());
+                json.writeNumberField("topo_levels", graph.getTopoLevels());
+                json.writeNumberField("reachable_from_source", graph.getReachableFromSource());
+                json.writeNumberField("critical_path_length", graph.getCriticalPathLength());
+                json.writeBooleanField("paths_on_condensation", graph.isPathsOnCondensation());
+                json.writeBooleanField("cache_hit", graph.isCacheHit());
+                json.writeObjectFieldStart("nanos");
+                json.writeNumberField("load", graph.getLoadNanos());
+                json.writeNumberField("scc", graph.getSccNanos());
+                json.writeNumberField("condensation", graph.getCondensationNanos());
+                json.writeNumberField("topo", graph.getTopoNanos());
+                json.writeNumberField("paths", graph.getPathNanos());
+                json.writeNumberField("total", graph.getTotalNanos());
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+}
\ No newline at end of file
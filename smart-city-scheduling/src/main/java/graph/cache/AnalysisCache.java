@@ -0,0 +1,299 @@
+package graph.cache;
+
+import graph.common.Graph;
+import graph.scc.SCCFinder;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the graph-only part of the pipeline (SCCs, condensation graph and its topological order)
+ * under the {@link GraphHash} of the input, so a re-run on the same graph goes straight to its queries.
+ * The in-memory tier is an LRU bounded by the estimated size of its entries. The optional disk tier keeps
+ * one file per graph in a directory and is consulted on a memory miss; it is never evicted. Writing to it is
+ * best-effort: a failed write is counted in {@link CacheStats#getDiskWriteFailures()} and the computed
+ * analysis is still returned.
+ * Safe for concurrent use; two threads missing on the same graph at once may both compute it.
+ */
+public class AnalysisCache {
+    private static final int FILE_MAGIC = 0x53434341; // "SCCA"
+    // Version 2: condensation edges carry the minimum weight instead of 1
+    private static final int FILE_VERSION = 2;
+
+    private final long maxBytes;
+    private final File directory;
+    private final LinkedHashMap<String, Analysis> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder diskWriteFailures = new LongAdder();
+
+    public AnalysisCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * @param directory disk tier, created if missing; null keeps the cache in memory only
+     */
+    public AnalysisCache(long maxBytes, File directory) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size must be non-negative: " + maxBytes);
+        }
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create cache directory " + directory);
+        }
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    public Analysis get(Graph graph) {
+        return get(GraphHash.of(graph), graph);
+    }
+
+    /**
+     * Returns the analysis for {@code graph}, whose {@link GraphHash} is {@code key}, computing it on a miss.
+     */
+    public Analysis get(String key, Graph graph) {
+        Analysis analysis = getIfPresent(key);
+        if (analysis == null) {
+            misses.increment();
+            analysis = compute(key, graph);
+            writeToDisk(analysis);
+            store(analysis);
+        }
+        return analysis;
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hits.sum(), diskHits.sum(), misses.sum(), evictions.sum(), diskWriteFailures.sum(),
+                    entries.size(), bytes);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Looks in memory, then on disk, and never computes; a null result is not counted as a miss.
+     */
+    public Analysis getIfPresent(String key) {
+        Analysis analysis;
+        synchronized (entries) {
+            analysis = entries.get(key);
+        }
+        if (analysis != null) {
+            hits.increment();
+            return analysis;
+        }
+        analysis = readFromDisk(key);
+        if (analysis != null) {
+            diskHits.increment();
+            store(analysis);
+        }
+        return analysis;
+    }
+
+    private void store(Analysis analysis) {
+        long size = analysis.sizeBytes();
+        if (size > maxBytes) {
+            return;
+        }
+        synchronized (entries) {
+            Analysis previous = entries.put(analysis.key, analysis);
+            if (previous != null) {
+                bytes -= previous.sizeBytes();
+            }
+            bytes += size;
+            Iterator<Analysis> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Analysis victim = eldest.next();
+                eldest.remove();
+                bytes -= victim.sizeBytes();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static Analysis compute(String key, Graph graph) {
+        SCCFinder finder = new SCCFinder(graph, SCCFinder.Algorithm.TARJAN);
+        SCCFinder.SCCResult sccs = finder.findSCCs();
+        SCCFinder.CondensationResult condensed = finder.condense(sccs, SCCFinder.WeightAggregation.MIN);
+        return new Analysis(key, condensed.getComponentOf(), condensed.getComponentCount(), condensed.getGraph(),
+                sccs.getTopologicalOrderArray());
+    }
+
+    private Analysis readFromDisk(String key) {
+        if (directory == null) {
+            return null;
+        }
+        File file = new File(directory, key + ".scc");
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            int vertices = in.readInt();
+            int[] componentOf = new int[vertices];
+            for (int v = 0; v < vertices; v++) {
+                componentOf[v] = in.readInt();
+            }
+            int componentCount = in.readInt();
+            int edgeCount = in.readInt();
+            int[] from = new int[edgeCount];
+            int[] to = new int[edgeCount];
+            int[] weight = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                from[e] = in.readInt();
+                to[e] = in.readInt();
+                weight[e] = in.readInt();
+            }
+            int[] topologicalOrder = new int[componentCount];
+            for (int i = 0; i < componentCount; i++) {
+                topologicalOrder[i] = in.readInt();
+            }
+            Graph condensation = Graph.fromEdgeArrays(componentCount, from, to, weight, edgeCount);
+            return new Analysis(key, componentOf, componentCount, condensation, topologicalOrder);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or foreign file is treated as a miss and overwritten
+            return null;
+        }
+    }
+
+    private void writeToDisk(Analysis analysis) {
+        if (directory == null) {
+            return;
+        }
+        File target = new File(directory, analysis.key + ".scc");
+        File temp = null;
+        try {
+            // Write to a temp file and rename, so readers never see a half-written entry
+            temp = File.createTempFile(analysis.key, ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(analysis.componentOf.length);
+                for (int c : analysis.componentOf) {
+                    out.writeInt(c);
+                }
+                Graph condensation = analysis.condensation;
+                out.writeInt(analysis.componentCount);
+                out.writeInt(condensation.getEdgesCount());
+                for (int u = 0; u < condensation.getVerticesCount(); u++) {
+                    for (int e = condensation.getEdgeStart(u); e < condensation.getEdgeEnd(u); e++) {
+                        out.writeInt(u);
+                        out.writeInt(condensation.getEdgeTarget(e));
+                        out.writeInt(condensation.getEdgeWeight(e));
+                    }
+                }
+                for (int c : analysis.topologicalOrder) {
+                    out.writeInt(c);
+                }
+            }
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+        } catch (IOException e) {
+            // Full disk or lost directory: the entry is simply recomputed next time
+            diskWriteFailures.increment();
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Cached analysis of one graph. The arrays are shared between all callers and must not be modified.
+     */
+    public static final class Analysis {
+        private final String key;
+        private final int[] componentOf;
+        private final int componentCount;
+        private final Graph condensation;
+        private final int[] topologicalOrder;
+
+        Analysis(String key, int[] componentOf, int componentCount, Graph condensation, int[] topologicalOrder) {
+            this.key = key;
+            this.componentOf = componentOf;
+            this.componentCount = componentCount;
+            this.condensation = condensation;
+            this.topologicalOrder = topologicalOrder;
+        }
+
+        public String getKey() { return key; }
+        public int[] getComponentOf() { return componentOf; }
+        public int getComponentCount() { return componentCount; }
+        public Graph getCondensation() { return condensation; }
+
+        /**
+         * Component ids in topological order of the condensation graph.
+         */
+        public int[] getTopologicalOrder() { return topologicalOrder; }
+
+        /**
+         * Components as vertex lists, each in ascending vertex order, indexed by component id.
+         */
+        public List<List<Integer>> getComponents() {
+            List<List<Integer>> components = new ArrayList<>(componentCount);
+            for (int c = 0; c < componentCount; c++) {
+                components.add(new ArrayList<>());
+            }
+            for (int v = 0; v < componentOf.length; v++) {
+                components.get(componentOf[v]).add(v);
+            }
+            return components;
+        }
+
+        // Arrays only: component map, order, and forward plus reverse CSR of the condensation
+        long sizeBytes() {
+            return 4L * componentOf.length + 4L * topologicalOrder.length
+                    + 8L * (condensation.getVerticesCount() + 1) + 16L * condensation.getEdgesCount() + 64;
+        }
+    }
+
+    public static final class CacheStats {
+        private final long hits;
+        private final long diskHits;
+        private final long misses;
+        private final long evictions;
+        private final long diskWriteFailures;
+        private final int entries;
+        private final long bytes;
+
+        CacheStats(long hits, long diskHits, long misses, long evictions, long diskWriteFailures, int entries,
+                   long bytes) {
+            this.hits = hits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.diskWriteFailures = diskWriteFailures;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        public long getHits() { return hits; }
+        public long getDiskHits() { return diskHits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getDiskWriteFailures() { return diskWriteFailures; }
+        public int getEntries() { return entries; }
+        public long getBytes() { return bytes; }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, diskHits=%d, misses=%d, evictions=%d, diskWriteFailures=%d, entries=%d, "
+                    + "bytes=%,d", hits, diskHits, misses, evictions, diskWriteFailures, entries, bytes);
+        }
+    }
+}
\ No newline at end of file
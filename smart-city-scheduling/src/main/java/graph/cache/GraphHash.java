@@ -0,0 +1,44 @@
+package graph.cache;
+
+import graph.common.Graph;
+
+/**
+ * 128-bit structural hash of a graph: vertex count, edge count and every (source, target, weight).
+ * Edges inside one row are combined commutatively, so the hash does not depend on the order the
+ * edges were listed in the input file, only on the multiset of edges of each vertex.
+ */
+public final class GraphHash {
+    private static final long SEED_HIGH = 0x243F6A8885A308D3L;
+    private static final long SEED_LOW = 0x13198A2E03707344L;
+
+    private GraphHash() {
+    }
+
+    /**
+     * Returns the hash as 32 lowercase hex digits, usable as a map key and as a file name.
+     */
+    public static String of(Graph graph) {
+        int vertices = graph.getVerticesCount();
+        long high = mix(SEED_HIGH ^ vertices) ^ mix(SEED_HIGH + graph.getEdgesCount());
+        long low = mix(SEED_LOW ^ vertices) ^ mix(SEED_LOW - graph.getEdgesCount());
+        for (int u = 0; u < vertices; u++) {
+            long rowHigh = 0;
+            long rowLow = 0;
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                long edge = ((long) graph.getEdgeTarget(e) << 32) | (graph.getEdgeWeight(e) & 0xFFFFFFFFL);
+                rowHigh += mix(edge ^ SEED_HIGH);
+                rowLow += mix(edge + SEED_LOW);
+            }
+            high = mix(high * 31 + (rowHigh ^ u));
+            low = mix(low * 37 + (rowLow ^ ((long) u << 32)));
+        }
+        return String.format("%016x%016x", high, low);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
@@ -1,23 +1,42 @@
 package graph.common;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Operation counters and phase timers for the algorithms.
+ * They only record anything in profiling mode ({@code -Dgraph.metrics=true}). Otherwise
+ * {@link #ENABLED} is a constant false and the JIT drops every call in the hot loops.
+ * Counters are striped LongAdders, so fork/join workers may update them concurrently.
+ */
 public abstract class BaseMetrics implements Metrics {
-    protected long operationCount;
+    public static final boolean ENABLED = Boolean.getBoolean("graph.metrics");
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder[] phaseNanos = new LongAdder[PHASES.length];
     protected long startTime;
 
 
     public BaseMetrics() {
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new LongAdder();
+        }
         reset();
     }
 
     @Override
     public void reset() {
-        operationCount = 0;
+        operations.reset();
+        for (LongAdder phase : phaseNanos) {
+            phase.reset();
+        }
         startTime = System.nanoTime();
     }
 
     @Override
     public long getOperationCount() {
-        return operationCount;
+        return operations.sum();
     }
 
     @Override
@@ -26,20 +45,40 @@ public abstract class BaseMetrics implements Metrics {
     }
 
     @Override
-    public void incrementOperationCount() {
-        operationCount++;
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    @Override
+    public final void incrementOperationCount() {
+        if (ENABLED) {
+            operations.increment();
+        }
     }
 
     @Override
-    public void incrementOperationCount(int delta) {
-        operationCount += delta;
+    public final void incrementOperationCount(int delta) {
+        if (ENABLED) {
+            operations.add(delta);
+        }
+    }
+
+    public final void incrementOperationCount(long delta) {
+        if (ENABLED) {
+            operations.add(delta);
+        }
+    }
+
+    /**
+     * Returns the start stamp to hand to {@link #endPhase}; 0 without a clock read when disabled.
+     */
+    protected final long startPhase() {
+        return ENABLED ? System.nanoTime() : 0L;
     }
 
-    public void incrementOperationCount(long delta) {
-        if (delta > Integer.MAX_VALUE) {
-            operationCount += Integer.MAX_VALUE;
-        } else {
-            operationCount += (int) delta;
+    protected final void endPhase(Phase phase, long start) {
+        if (ENABLED) {
+            phaseNanos[phase.ordinal()].add(System.nanoTime() - start);
         }
     }
 
@@ -51,7 +90,15 @@ public abstract class BaseMetrics implements Metrics {
 
     @Override
     public String toString() {
-        return String.format("Operations: %,d, Time: %,d ns (%,d ms)",
-                operationCount, getTimeNanos(), getTimeMillis());
+        StringBuilder sb = new StringBuilder(String.format("Operations: %,d, Time: %,d ns (%,d ms)",
+                getOperationCount(), getTimeNanos(), getTimeMillis()));
+        if (ENABLED) {
+            for (Phase phase : PHASES) {
+                if (getPhaseNanos(phase) > 0) {
+                    sb.append(String.format(", %s: %,d ns", phase, getPhaseNanos(phase)));
+                }
+            }
+        }
+        return sb.toString();
     }
 }
\ No newline at end of file
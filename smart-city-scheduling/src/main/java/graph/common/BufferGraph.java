@@ -0,0 +1,87 @@
+package graph.common;
+
+import java.nio.IntBuffer;
+
+/**
+ * {@link Graph} reading the CSR layout straight from int buffers, e.g. views over a memory-mapped file.
+ * Nothing is copied onto the heap; every accessor is an absolute buffer read.
+ */
+public class BufferGraph implements Graph {
+    private final int vertices;
+    private final int edges;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final IntBuffer reverseOffsets;
+    private final IntBuffer reverseSources;
+    private final IntBuffer reverseWeights;
+
+    public BufferGraph(int vertices, int edges, IntBuffer offsets, IntBuffer targets, IntBuffer weights,
+                       IntBuffer reverseOffsets, IntBuffer reverseSources, IntBuffer reverseWeights) {
+        if (offsets.limit() != vertices + 1 || reverseOffsets.limit() != vertices + 1) {
+            throw new IllegalArgumentException("Offset buffers must hold " + (vertices + 1) + " entries");
+        }
+        if (targets.limit() != edges || weights.limit() != edges
+                || reverseSources.limit() != edges || reverseWeights.limit() != edges) {
+            throw new IllegalArgumentException("Edge buffers must hold " + edges + " entries");
+        }
+        this.vertices = vertices;
+        this.edges = edges;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseSources = reverseSources;
+        this.reverseWeights = reverseWeights;
+    }
+
+    @Override
+    public int getVerticesCount() {
+        return vertices;
+    }
+
+    @Override
+    public int getEdgesCount() {
+        return edges;
+    }
+
+    @Override
+    public int getEdgeStart(int vertex) {
+        return offsets.get(vertex);
+    }
+
+    @Override
+    public int getEdgeEnd(int vertex) {
+        return offsets.get(vertex + 1);
+    }
+
+    @Override
+    public int getEdgeTarget(int edge) {
+        return targets.get(edge);
+    }
+
+    @Override
+    public int getEdgeWeight(int edge) {
+        return weights.get(edge);
+    }
+
+    @Override
+    public int getReverseEdgeStart(int vertex) {
+        return reverseOffsets.get(vertex);
+    }
+
+    @Override
+    public int getReverseEdgeEnd(int vertex) {
+        return reverseOffsets.get(vertex + 1);
+    }
+
+    @Override
+    public int getReverseEdgeSource(int edge) {
+        return reverseSources.get(edge);
+    }
+
+    @Override
+    public int getReverseEdgeWeight(int edge) {
+        return reverseWeights.get(edge);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+package graph.common;
+
+import java.util.Arrays;
+
+/**
+ * Forward adjacency in a single byte array, for keeping many graphs resident. Each vertex's out-edges are
+ * sorted by target and gap-encoded as variable-length integers (7 bits per byte): the first target relative
+ * to the vertex itself (zigzag, as it may be smaller), every later one relative to the previous target.
+ * When the graph's weights span at most {@value #MAX_PACKED_WEIGHT_BITS} bits above its minimum they are
+ * packed into the low bits of the same varint, otherwise each follows as a varint of its own.
+ * <p>
+ * There is no edge-id access and no reverse adjacency; rows are read front to back with an {@link EdgeCursor}.
+ * {@code CompressedSCC} and {@code CompressedShortestPath} run directly on this form; {@link #toGraph()}
+ * expands it for everything else. Immutable, so any number of cursors may read it concurrently.
+ */
+public final class CompressedGraph {
+    public static final int MAX_PACKED_WEIGHT_BITS = 8;
+
+    private final int vertices;
+    private final int edges;
+    private final int[] offsets;
+    private final byte[] data;
+    private final int minWeight;
+    private final int weightBits;
+    private final boolean packed;
+
+    private CompressedGraph(int vertices, int edges, int[] offsets, byte[] data, int minWeight, int weightBits) {
+        this.vertices = vertices;
+        this.edges = edges;
+        this.offsets = offsets;
+        this.data = data;
+        this.minWeight = minWeight;
+        this.weightBits = weightBits;
+        this.packed = weightBits <= MAX_PACKED_WEIGHT_BITS;
+    }
+
+    /**
+     * Encodes the out-edges of any graph. Parallel edges are kept; within a row edges come out sorted by
+     * target, so ties between equal paths may resolve differently than on the original graph.
+     */
+    public static CompressedGraph of(Graph graph) {
+        int n = graph.getVerticesCount();
+        int minWeight = Integer.MAX_VALUE;
+        int maxWeight = Integer.MIN_VALUE;
+        int maxDegree = 0;
+        for (int u = 0; u < n; u++) {
+            maxDegree = Math.max(maxDegree, graph.getOutDegree(u));
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                minWeight = Math.min(minWeight, graph.getEdgeWeight(e));
+                maxWeight = Math.max(maxWeight, graph.getEdgeWeight(e));
+            }
+        }
+        if (graph.getEdgesCount() == 0) {
+            minWeight = maxWeight = 0;
+        }
+        int weightBits = 64 - Long.numberOfLeadingZeros((long) maxWeight - minWeight);
+        boolean packed = weightBits <= MAX_PACKED_WEIGHT_BITS;
+
+        int[] offsets = new int[n + 1];
+        Writer out = new Writer((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16L, 2L * graph.getEdgesCount())));
+        // One row at a time: target in the high half, weight above the minimum in the low half, sorted together
+        long[] row = new long[maxDegree];
+        for (int u = 0; u < n; u++) {
+            offsets[u] = out.size;
+            int degree = 0;
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                row[degree++] = (long) graph.getEdgeTarget(e) << 32 | ((long) graph.getEdgeWeight(e) - minWeight);
+            }
+            Arrays.sort(row, 0, degree);
+            long previous = u;
+            for (int i = 0; i < degree; i++) {
+                long target = row[i] >>> 32;
+                long weight = row[i] & 0xFFFFFFFFL;
+                long gap = i == 0 ? zigzag(target - previous) : target - previous;
+                if (packed) {
+                    out.varint(gap << weightBits | weight);
+                } else {
+                    out.varint(gap);
+                    out.varint(weight);
+                }
+                previous = target;
+            }
+        }
+        offsets[n] = out.size;
+        return new CompressedGraph(n, graph.getEdgesCount(), offsets, Arrays.copyOf(out.bytes, out.size),
+                minWeight, weightBits);
+    }
+
+    public int getVerticesCount() {
+        return vertices;
+    }
+
+    public int getEdgesCount() {
+        return edges;
+    }
+
+    /**
+     * Heap bytes held by the encoding: the byte array plus one int offset per vertex.
+     */
+    public long getSizeBytes() {
+        return data.length + 4L * offsets.length;
+    }
+
+    public EdgeCursor cursor() {
+        return new EdgeCursor();
+    }
+
+    /**
+     * Decodes everything back into an on-heap CSR graph.
+     */
+    public Graph toGraph() {
+        Graph.Builder builder = Graph.builder(vertices);
+        EdgeCursor cursor = cursor();
+        for (int u = 0; u < vertices; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                builder.addEdge(u, cursor.target(), cursor.weight());
+            }
+        }
+        return builder.build();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Sequential reader over one row at a time; reusable across vertices but not shared between threads.
+     * {@link #getPosition()} with the last target read is enough to {@link #resume} a row later, which is how
+     * a depth-first search keeps one suspended row per vertex on its stack.
+     */
+    public final class EdgeCursor {
+        private int start;
+        private int position;
+        private int end;
+        private int target;
+        private int weight;
+
+        private EdgeCursor() {
+        }
+
+        public void reset(int vertex) {
+            start = position = offsets[vertex];
+            end = offsets[vertex + 1];
+            target = vertex;
+        }
+
+        /**
+         * Continues a row from a position returned by {@link #getPosition()} after {@code previousTarget}
+         * was read.
+         */
+        public void resume(int vertex, int position, int previousTarget) {
+            this.start = offsets[vertex];
+            this.position = position;
+            this.end = offsets[vertex + 1];
+            this.target = position == start ? vertex : previousTarget;
+        }
+
+        /**
+         * Decodes the next edge, false once the row is exhausted.
+         */
+        public boolean next() {
+            if (position == end) {
+                return false;
+            }
+            boolean first = position == start;
+            long value = readVarint();
+            long gap;
+            if (packed) {
+                gap = value >>> weightBits;
+                weight = (int) (minWeight + (value & ((1L << weightBits) - 1)));
+            } else {
+                gap = value;
+                weight = (int) (minWeight + readVarint());
+            }
+            target = (int) (first ? target + ((gap >>> 1) ^ -(gap & 1)) : target + gap);
+            return true;
+        }
+
+        public int target() { return target; }
+        public int weight() { return weight; }
+        public int getPosition() { return position; }
+
+        private long readVarint() {
+            byte b = data[position++];
+            if (b >= 0) {
+                return b;
+            }
+            long value = b & 0x7F;
+            int shift = 7;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    private static final class Writer {
+        private byte[] bytes;
+        private int size;
+
+        Writer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void varint(long value) {
+            if (bytes.length - size < 10) {
+                long grown = Math.min(Math.max(bytes.length * 2L, size + 10L), Integer.MAX_VALUE - 8);
+                if (grown < size + 10L) {
+                    throw new IllegalArgumentException("Encoded graph exceeds 2 GB");
+                }
+                bytes = Arrays.copyOf(bytes, (int) grown);
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package graph.common;
+
+/**
+ * On-heap {@link Graph} holding forward and reverse CSR in plain int arrays.
+ */
+public final class CsrGraph implements Graph {
+    private final int vertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] reverseOffsets;
+    private final int[] reverseSources;
+    private final int[] reverseWeights;
+
+    CsrGraph(int vertices, int[] offsets, int[] targets, int[] weights,
+             int[] reverseOffsets, int[] reverseSources, int[] reverseWeights) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseSources = reverseSources;
+        this.reverseWeights = reverseWeights;
+    }
+
+    @Override
+    public int getVerticesCount() {
+        return vertices;
+    }
+
+    @Override
+    public int getEdgesCount() {
+        return targets.length;
+    }
+
+    @Override
+    public int getEdgeStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    @Override
+    public int getEdgeEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    @Override
+    public int getEdgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    @Override
+    public int getEdgeWeight(int edge) {
+        return weights[edge];
+    }
+
+    @Override
+    public int getReverseEdgeStart(int vertex) {
+        return reverseOffsets[vertex];
+    }
+
+    @Override
+    public int getReverseEdgeEnd(int vertex) {
+        return reverseOffsets[vertex + 1];
+    }
+
+    @Override
+    public int getReverseEdgeSource(int edge) {
+        return reverseSources[edge];
+    }
+
+    @Override
+    public int getReverseEdgeWeight(int edge) {
+        return reverseWeights[edge];
+    }
+}
\ No newline at end of file
@@ -1,57 +1,180 @@
 package graph.common;
 
-import java.util.*;
+import java.util.Arrays;
 
-public class Graph {
-    private final int vertices;
-    private final List<List<Integer>> adj;
-    private final List<List<Integer>> reverseAdj;
-    private final int[][] weights;
+/**
+ * Read-only directed graph in compressed sparse row (CSR) form.
+ * Out-edges of vertex u occupy edge ids [getEdgeStart(u), getEdgeEnd(u)),
+ * in-edges of vertex v occupy reverse edge ids [getReverseEdgeStart(v), getReverseEdgeEnd(v)).
+ * On-heap instances are created through {@link Builder}; {@link BufferGraph} reads the same layout from buffers
+ * and {@link OffHeapGraph} keeps it in native memory.
+ */
+public interface Graph {
 
-    public Graph(int vertices) {
-        this.vertices = vertices;
-        this.adj = new ArrayList<>();
-        this.reverseAdj = new ArrayList<>();
-        this.weights = new int[vertices][vertices];
+    int getVerticesCount();
 
-        for (int i = 0; i < vertices; i++) {
-            adj.add(new ArrayList<>());
-            reverseAdj.add(new ArrayList<>());
-            Arrays.fill(weights[i], -1);
-        }
+    int getEdgesCount();
+
+    int getEdgeStart(int vertex);
+
+    int getEdgeEnd(int vertex);
+
+    int getEdgeTarget(int edge);
+
+    int getEdgeWeight(int edge);
+
+    int getReverseEdgeStart(int vertex);
+
+    int getReverseEdgeEnd(int vertex);
+
+    int getReverseEdgeSource(int edge);
+
+    int getReverseEdgeWeight(int edge);
+
+    default int getOutDegree(int vertex) {
+        return getEdgeEnd(vertex) - getEdgeStart(vertex);
     }
 
-    public void addEdge(int from, int to, int weight) {
-        adj.get(from).add(to);
-        reverseAdj.get(to).add(from);
-        weights[from][to] = weight;
+    default int getInDegree(int vertex) {
+        return getReverseEdgeEnd(vertex) - getReverseEdgeStart(vertex);
     }
 
-    public List<Integer> getAdjacent(int vertex) {
-        return adj.get(vertex);
+    /**
+     * Scans the out-edges of {@code from} and returns the smallest weight of an edge to {@code to},
+     * or -1 if there is none. Algorithms should read weights by edge id instead.
+     */
+    default int getWeight(int from, int to) {
+        int best = -1;
+        for (int e = getEdgeStart(from); e < getEdgeEnd(from); e++) {
+            if (getEdgeTarget(e) == to && (best == -1 || getEdgeWeight(e) < best)) {
+                best = getEdgeWeight(e);
+            }
+        }
+        return best;
     }
 
-    public List<Integer> getReverseAdjacent(int vertex) {
-        return reverseAdj.get(vertex);
+    /**
+     * True if some edge leads from a vertex to itself. Such a vertex is a single-vertex SCC but still a cycle,
+     * so a graph is acyclic only when every SCC is a single vertex and this is false.
+     */
+    default boolean hasSelfLoops() {
+        for (int u = 0; u < getVerticesCount(); u++) {
+            for (int e = getEdgeStart(u); e < getEdgeEnd(u); e++) {
+                if (getEdgeTarget(e) == u) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
-    public int getWeight(int from, int to) {
-        return weights[from][to];
+    static Builder builder(int vertices) {
+        return new Builder(vertices);
     }
 
-    public int getVerticesCount() {
-        return vertices;
+    /**
+     * Lays out the first {@code count} entries of parallel edge arrays as forward and reverse CSR.
+     * The arrays are only read, so callers that already hold primitive edge buffers avoid another copy.
+     */
+    static Graph fromEdgeArrays(int vertices, int[] from, int[] to, int[] weight, int count) {
+        int[] offsets = new int[vertices + 1];
+        int[] reverseOffsets = new int[vertices + 1];
+        for (int i = 0; i < count; i++) {
+            if (from[i] < 0 || from[i] >= vertices || to[i] < 0 || to[i] >= vertices) {
+                throw new IndexOutOfBoundsException("Edge " + from[i] + "->" + to[i] + " outside [0, " + vertices + ")");
+            }
+            offsets[from[i] + 1]++;
+            reverseOffsets[to[i] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+
+        // Counting sort keeps insertion order within each row
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        int[] reverseSources = new int[count];
+        int[] reverseWeights = new int[count];
+        int[] next = Arrays.copyOf(offsets, vertices);
+        int[] reverseNext = Arrays.copyOf(reverseOffsets, vertices);
+        for (int i = 0; i < count; i++) {
+            int e = next[from[i]]++;
+            targets[e] = to[i];
+            weights[e] = weight[i];
+            int r = reverseNext[to[i]]++;
+            reverseSources[r] = from[i];
+            reverseWeights[r] = weight[i];
+        }
+
+        return new CsrGraph(vertices, offsets, targets, weights, reverseOffsets, reverseSources, reverseWeights);
     }
 
-    public List<List<Integer>> getAdjacencyList() {
-        return adj;
+    /**
+     * Wraps forward and reverse CSR arrays that the caller has already laid out, without copying them.
+     * The arrays are owned by the graph afterwards and must not be modified.
+     */
+    static Graph fromCsr(int vertices, int[] offsets, int[] targets, int[] weights,
+                         int[] reverseOffsets, int[] reverseSources, int[] reverseWeights) {
+        int edges = targets.length;
+        if (offsets.length != vertices + 1 || reverseOffsets.length != vertices + 1) {
+            throw new IllegalArgumentException("Offset arrays must hold " + (vertices + 1) + " entries");
+        }
+        if (weights.length != edges || reverseSources.length != edges || reverseWeights.length != edges
+                || offsets[vertices] != edges || reverseOffsets[vertices] != edges) {
+            throw new IllegalArgumentException("Edge arrays must hold " + edges + " entries");
+        }
+        return new CsrGraph(vertices, offsets, targets, weights, reverseOffsets, reverseSources, reverseWeights);
     }
 
-    public int getEdgesCount() {
-        int count = 0;
-        for (List<Integer> edges : adj) {
-            count += edges.size();
+    /**
+     * Collects edges into primitive arrays and lays them out as forward and reverse CSR on {@link #build()}.
+     * Parallel edges are kept as separate entries, each with its own weight.
+     */
+    class Builder {
+        private final int vertices;
+        private int[] from;
+        private int[] to;
+        private int[] weight;
+        private int size;
+
+        public Builder(int vertices) {
+            if (vertices < 0) {
+                throw new IllegalArgumentException("Vertex count must be non-negative: " + vertices);
+            }
+            this.vertices = vertices;
+            this.from = new int[16];
+            this.to = new int[16];
+            this.weight = new int[16];
+        }
+
+        public Builder addEdge(int from, int to, int weight) {
+            if (from < 0 || from >= vertices || to < 0 || to >= vertices) {
+                throw new IndexOutOfBoundsException("Edge " + from + "->" + to + " outside [0, " + vertices + ")");
+            }
+            if (size == this.from.length) {
+                int capacity = size * 2;
+                this.from = Arrays.copyOf(this.from, capacity);
+                this.to = Arrays.copyOf(this.to, capacity);
+                this.weight = Arrays.copyOf(this.weight, capacity);
+            }
+            this.from[size] = from;
+            this.to[size] = to;
+            this.weight[size] = weight;
+            size++;
+            return this;
+        }
+
+        public int getVerticesCount() {
+            return vertices;
+        }
+
+        public int getEdgesCount() {
+            return size;
+        }
+
+        public Graph build() {
+            return fromEdgeArrays(vertices, from, to, weight, size);
         }
-        return count;
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package graph.common;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int values ordered by a long key, ties broken by the smaller value.
+ * Keys and values live in parallel primitive arrays, so pushes and pops never allocate once grown.
+ */
+public final class IntHeap {
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public IntHeap() {
+        this(16);
+    }
+
+    public IntHeap(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.keys = new long[initial];
+        this.values = new int[initial];
+    }
+
+    public void push(long key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(key, value, keys[parent], values[parent])) {
+                break;
+            }
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    public long peekKey() {
+        checkNotEmpty();
+        return keys[0];
+    }
+
+    public int peekValue() {
+        checkNotEmpty();
+        return values[0];
+    }
+
+    /**
+     * Removes the smallest entry and returns its value; read {@link #peekKey()} first if the key is needed.
+     */
+    public int pop() {
+        checkNotEmpty();
+        int top = values[0];
+        size--;
+        long key = keys[size];
+        int value = values[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && less(keys[child + 1], values[child + 1], keys[child], values[child])) {
+                child++;
+            }
+            if (!less(keys[child], values[child], key, value)) {
+                break;
+            }
+            keys[i] = keys[child];
+            values[i] = values[child];
+            i = child;
+        }
+        keys[i] = key;
+        values[i] = value;
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private static boolean less(long keyA, int valueA, long keyB, int valueB) {
+        return keyA < keyB || (keyA == keyB && valueA < valueB);
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+    }
+}
\ No newline at end of file
@@ -2,6 +2,10 @@ package graph.common;
 
 public interface Metrics {
 
+    /**
+     * Timed sections of the algorithms; only recorded in profiling mode.
+     */
+    enum Phase { DFS_FIRST_PASS, DFS_SECOND_PASS, CONDENSATION, TOPOLOGICAL_ORDER, RELAXATION }
 
     void reset();
 
@@ -9,6 +13,8 @@ public interface Metrics {
 
     long getTimeNanos();
 
+    long getPhaseNanos(Phase phase);
+
     void incrementOperationCount();
 
     void incrementOperationCount(int delta);
@@ -0,0 +1,330 @@
+package graph.common;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * {@link BufferGraph} whose six CSR sections live outside the Java heap, in direct or memory-mapped buffers.
+ * The heap holds a handful of objects whatever the graph size, so the collector never scans or copies
+ * adjacency. Direct memory is capped by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap
+ * size; raise it to hold graphs larger than the heap, or map a binary file instead.
+ * <p>
+ * {@link #close()} frees the memory at once instead of whenever the collector gets to the buffers; any later
+ * access throws {@link IllegalStateException}. Close only once every reader is done, since a concurrent read
+ * is not guarded. An instance that is never closed is freed by the collector as usual.
+ */
+public class OffHeapGraph extends BufferGraph implements AutoCloseable {
+    /** Largest section a single buffer can hold. */
+    public static final int MAX_SECTION_INTS = Integer.MAX_VALUE / Integer.BYTES;
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // No explicit release on this runtime; closed buffers are left to the collector
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private ByteBuffer[] regions;
+
+    /**
+     * @param regions the sections in file order: offsets, targets, weights, reverseOffsets, reverseSources,
+     *                reverseWeights, each a whole direct buffer with its byte order already set
+     */
+    protected OffHeapGraph(int vertices, int edges, ByteBuffer[] regions) {
+        super(vertices, edges, ints(regions, 0), ints(regions, 1), ints(regions, 2),
+                ints(regions, 3), ints(regions, 4), ints(regions, 5));
+        this.regions = regions;
+    }
+
+    /**
+     * Copies any graph into native memory, section by section.
+     */
+    public static OffHeapGraph copyOf(Graph graph) {
+        int vertices = graph.getVerticesCount();
+        int edges = graph.getEdgesCount();
+        ByteBuffer[] regions = new ByteBuffer[6];
+        regions[0] = allocate(vertices + 1);
+        regions[1] = allocate(edges);
+        regions[2] = allocate(edges);
+        regions[3] = allocate(vertices + 1);
+        regions[4] = allocate(edges);
+        regions[5] = allocate(edges);
+        IntBuffer offsets = regions[0].asIntBuffer();
+        IntBuffer targets = regions[1].asIntBuffer();
+        IntBuffer weights = regions[2].asIntBuffer();
+        IntBuffer reverseOffsets = regions[3].asIntBuffer();
+        IntBuffer reverseSources = regions[4].asIntBuffer();
+        IntBuffer reverseWeights = regions[5].asIntBuffer();
+        for (int v = 0; v < vertices; v++) {
+            offsets.put(v, graph.getEdgeStart(v));
+            reverseOffsets.put(v, graph.getReverseEdgeStart(v));
+        }
+        offsets.put(vertices, edges);
+        reverseOffsets.put(vertices, edges);
+        for (int e = 0; e < edges; e++) {
+            targets.put(e, graph.getEdgeTarget(e));
+            weights.put(e, graph.getEdgeWeight(e));
+            reverseSources.put(e, graph.getReverseEdgeSource(e));
+            reverseWeights.put(e, graph.getReverseEdgeWeight(e));
+        }
+        return new OffHeapGraph(vertices, edges, regions);
+    }
+
+    public static Builder builder(int vertices) {
+        return new Builder(vertices);
+    }
+
+    public boolean isClosed() {
+        return regions == null;
+    }
+
+    /**
+     * Releases the native memory. Closing twice does nothing.
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] released = regions;
+        if (released == null) {
+            return;
+        }
+        regions = null;
+        for (ByteBuffer region : released) {
+            free(region);
+        }
+    }
+
+    private void ensureOpen() {
+        if (regions == null) {
+            throw new IllegalStateException("Graph memory has been released");
+        }
+    }
+
+    @Override
+    public int getEdgeStart(int vertex) {
+        ensureOpen();
+        return super.getEdgeStart(vertex);
+    }
+
+    @Override
+    public int getEdgeEnd(int vertex) {
+        ensureOpen();
+        return super.getEdgeEnd(vertex);
+    }
+
+    @Override
+    public int getEdgeTarget(int edge) {
+        ensureOpen();
+        return super.getEdgeTarget(edge);
+    }
+
+    @Override
+    public int getEdgeWeight(int edge) {
+        ensureOpen();
+        return super.getEdgeWeight(edge);
+    }
+
+    @Override
+    public int getReverseEdgeStart(int vertex) {
+        ensureOpen();
+        return super.getReverseEdgeStart(vertex);
+    }
+
+    @Override
+    public int getReverseEdgeEnd(int vertex) {
+        ensureOpen();
+        return super.getReverseEdgeEnd(vertex);
+    }
+
+    @Override
+    public int getReverseEdgeSource(int edge) {
+        ensureOpen();
+        return super.getReverseEdgeSource(edge);
+    }
+
+    @Override
+    public int getReverseEdgeWeight(int edge) {
+        ensureOpen();
+        return super.getReverseEdgeWeight(edge);
+    }
+
+    private static IntBuffer ints(ByteBuffer[] regions, int section) {
+        if (regions.length != 6) {
+            throw new IllegalArgumentException("Expected 6 sections, got " + regions.length);
+        }
+        return regions[section].asIntBuffer();
+    }
+
+    private static ByteBuffer allocate(long count) {
+        if (count > MAX_SECTION_INTS) {
+            throw new IllegalArgumentException("Section of " + count + " ints exceeds " + MAX_SECTION_INTS);
+        }
+        return ByteBuffer.allocateDirect((int) count * Integer.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Releases a direct or memory-mapped buffer now rather than when it is collected, which also drops the file
+     * lock a mapping holds on Windows. Nothing may touch the buffer or its views afterwards. Heap buffers, and
+     * every buffer on a runtime without the cleaner hook, are left to the collector.
+     */
+    public static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            // Left to the collector
+        }
+    }
+
+    /**
+     * Collects edges in native memory and lays them out as forward and reverse CSR on {@link #build()},
+     * like {@link Graph.Builder} but without any per-edge heap storage. The staging buffers grow by doubling
+     * and are freed by {@code build()}, after which the builder cannot be used again.
+     */
+    public static class Builder {
+        private final int vertices;
+        private ByteBuffer[] staging;
+        private IntBuffer from;
+        private IntBuffer to;
+        private IntBuffer weight;
+        private int capacity;
+        private int size;
+
+        public Builder(int vertices) {
+            if (vertices < 0) {
+                throw new IllegalArgumentException("Vertex count must be non-negative: " + vertices);
+            }
+            this.vertices = vertices;
+            grow(1024);
+        }
+
+        public Builder addEdge(int from, int to, int weight) {
+            if (staging == null) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+            if (from < 0 || from >= vertices || to < 0 || to >= vertices) {
+                throw new IndexOutOfBoundsException("Edge " + from + "->" + to + " outside [0, " + vertices + ")");
+            }
+            if (size == capacity) {
+                if (capacity == MAX_SECTION_INTS) {
+                    throw new IllegalArgumentException("More than " + MAX_SECTION_INTS + " edges");
+                }
+                grow((int) Math.min((long) capacity * 2, MAX_SECTION_INTS));
+            }
+            this.from.put(size, from);
+            this.to.put(size, to);
+            this.weight.put(size, weight);
+            size++;
+            return this;
+        }
+
+        public int getVerticesCount() {
+            return vertices;
+        }
+
+        public int getEdgesCount() {
+            return size;
+        }
+
+        public OffHeapGraph build() {
+            if (staging == null) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+            ByteBuffer[] regions = new ByteBuffer[6];
+            regions[0] = allocate(vertices + 1);
+            regions[1] = allocate(size);
+            regions[2] = allocate(size);
+            regions[3] = allocate(vertices + 1);
+            regions[4] = allocate(size);
+            regions[5] = allocate(size);
+            IntBuffer offsets = regions[0].asIntBuffer();
+            IntBuffer targets = regions[1].asIntBuffer();
+            IntBuffer weights = regions[2].asIntBuffer();
+            IntBuffer reverseOffsets = regions[3].asIntBuffer();
+            IntBuffer reverseSources = regions[4].asIntBuffer();
+            IntBuffer reverseWeights = regions[5].asIntBuffer();
+
+            // Degrees are counted straight into the offset sections, shifted by one, then summed in place
+            for (int i = 0; i < size; i++) {
+                int u = from.get(i);
+                int v = to.get(i);
+                offsets.put(u + 1, offsets.get(u + 1) + 1);
+                reverseOffsets.put(v + 1, reverseOffsets.get(v + 1) + 1);
+            }
+            for (int v = 0; v < vertices; v++) {
+                offsets.put(v + 1, offsets.get(v + 1) + offsets.get(v));
+                reverseOffsets.put(v + 1, reverseOffsets.get(v + 1) + reverseOffsets.get(v));
+            }
+
+            // Counting sort keeps insertion order within each row; the fill cursors are native too
+            ByteBuffer cursors = allocate(2L * vertices);
+            IntBuffer next = cursors.asIntBuffer();
+            for (int v = 0; v < vertices; v++) {
+                next.put(v, offsets.get(v));
+                next.put(vertices + v, reverseOffsets.get(v));
+            }
+            for (int i = 0; i < size; i++) {
+                int u = from.get(i);
+                int v = to.get(i);
+                int w = weight.get(i);
+                int e = next.get(u);
+                next.put(u, e + 1);
+                targets.put(e, v);
+                weights.put(e, w);
+                int r = next.get(vertices + v);
+                next.put(vertices + v, r + 1);
+                reverseSources.put(r, u);
+                reverseWeights.put(r, w);
+            }
+            free(cursors);
+            for (ByteBuffer buffer : staging) {
+                free(buffer);
+            }
+            staging = null;
+            from = to = weight = null;
+            return new OffHeapGraph(vertices, size, regions);
+        }
+
+        private void grow(int newCapacity) {
+            ByteBuffer[] grown = {allocate(newCapacity), allocate(newCapacity), allocate(newCapacity)};
+            IntBuffer newFrom = grown[0].asIntBuffer();
+            IntBuffer newTo = grown[1].asIntBuffer();
+            IntBuffer newWeight = grown[2].asIntBuffer();
+            if (staging != null) {
+                newFrom.put(slice(from, size));
+                newTo.put(slice(to, size));
+                newWeight.put(slice(weight, size));
+                for (ByteBuffer buffer : staging) {
+                    free(buffer);
+                }
+            }
+            staging = grown;
+            from = newFrom;
+            to = newTo;
+            weight = newWeight;
+            capacity = newCapacity;
+        }
+
+        private static IntBuffer slice(IntBuffer buffer, int length) {
+            IntBuffer view = buffer.duplicate();
+            view.position(0).limit(length);
+            return view;
+        }
+    }
+}
\ No newline at end of file
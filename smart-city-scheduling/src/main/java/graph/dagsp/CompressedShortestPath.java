@@ -0,0 +1,103 @@
+package graph.dagsp;
+
+import graph.common.BaseMetrics;
+import graph.common.CompressedGraph;
+import java.util.Arrays;
+
+/**
+ * Shortest and longest paths from a source on a DAG stored as a {@link CompressedGraph}. The topological order
+ * is computed once, from in-degrees counted in one decoding pass, and each query then decodes every row it
+ * relaxes front to back. Results match {@link DAGShortestPath} up to ties between equally long paths.
+ */
+public class CompressedShortestPath extends BaseMetrics {
+    private final CompressedGraph graph;
+    private final int[] order;
+    private final int[] position;
+
+    public CompressedShortestPath(CompressedGraph dag) {
+        this.graph = dag;
+        int n = dag.getVerticesCount();
+        int[] inDegree = new int[n];
+        CompressedGraph.EdgeCursor cursor = dag.cursor();
+        for (int u = 0; u < n; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                inDegree[cursor.target()]++;
+            }
+        }
+        // Kahn with the output array as its queue
+        order = new int[n];
+        int tail = 0;
+        for (int u = 0; u < n; u++) {
+            if (inDegree[u] == 0) {
+                order[tail++] = u;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            cursor.reset(order[head]);
+            while (cursor.next()) {
+                if (--inDegree[cursor.target()] == 0) {
+                    order[tail++] = cursor.target();
+                }
+            }
+        }
+        if (tail != n) {
+            throw new IllegalArgumentException("Graph has cycles - topological sort not possible");
+        }
+        position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[order[i]] = i;
+        }
+    }
+
+    /**
+     * Unreachable vertices at {@code Integer.MAX_VALUE}, as in {@link DAGShortestPath#shortestPathsFromSource}.
+     */
+    public DAGShortestPath.ShortestPathResult shortestPathsFromSource(int source) {
+        return solve(source, false);
+    }
+
+    /**
+     * Unreachable vertices at {@code Integer.MIN_VALUE}, as in {@link DAGShortestPath#longestPathsFromSource}.
+     */
+    public DAGShortestPath.ShortestPathResult longestPathsFromSource(int source) {
+        return solve(source, true);
+    }
+
+    private DAGShortestPath.ShortestPathResult solve(int source, boolean longest) {
+        int n = order.length;
+        if (source < 0 || source >= n) {
+            throw new IndexOutOfBoundsException("Source " + source + " out of range [0, " + n + ")");
+        }
+        reset();
+        long phase = startPhase();
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        Arrays.fill(dist, unreached);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+
+        CompressedGraph.EdgeCursor cursor = graph.cursor();
+        for (int i = position[source]; i < n; i++) {
+            int u = order[i];
+            if (dist[u] == unreached) {
+                continue;
+            }
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.target();
+                int candidate = dist[u] + cursor.weight();
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    prev[v] = u;
+                }
+                incrementOperationCount();
+            }
+            incrementOperationCount();
+        }
+        endPhase(Phase.RELAXATION, phase);
+
+        return new DAGShortestPath.ShortestPathResult(dist, prev, getOperationCount(), getTimeNanos());
+    }
+}
\ No newline at end of file
@@ -24,14 +24,18 @@ public class DAGShortestPath extends BaseMetrics {
 
         // Get topological order
         TopologicalSort topo = new TopologicalSort(graph);
-        List<Integer> topoOrder = topo.kahnTopologicalSort().getOrder();
+        long phase = startPhase();
+        int[] topoOrder = topo.kahnTopologicalSort().getOrderArray();
         incrementOperationCount(topo.getOperationCount());
+        endPhase(Phase.TOPOLOGICAL_ORDER, phase);
+        phase = startPhase();
 
         // Process vertices in topological order
         for (int u : topoOrder) {
             if (dist[u] != Integer.MAX_VALUE) {
-                for (int v : graph.getAdjacent(u)) {
-                    int weight = graph.getWeight(u, v);
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    int v = graph.getEdgeTarget(e);
+                    int weight = graph.getEdgeWeight(e);
                     if (dist[u] + weight < dist[v]) {
                         dist[v] = dist[u] + weight;
                         prev[v] = u;
@@ -41,6 +45,7 @@ public class DAGShortestPath extends BaseMetrics {
             }
             incrementOperationCount();
         }
+        endPhase(Phase.RELAXATION, phase);
 
         return new ShortestPathResult(dist, prev, getOperationCount(), getTimeNanos());
     }
@@ -57,14 +62,18 @@ public class DAGShortestPath extends BaseMetrics {
 
         // Get topological order
         TopologicalSort topo = new TopologicalSort(graph);
-        List<Integer> topoOrder = topo.kahnTopologicalSort().getOrder();
+        long phase = startPhase();
+        int[] topoOrder = topo.kahnTopologicalSort().getOrderArray();
         incrementOperationCount(topo.getOperationCount());
+        endPhase(Phase.TOPOLOGICAL_ORDER, phase);
+        phase = startPhase();
 
         // Process vertices in topological order for longest path
         for (int u : topoOrder) {
             if (dist[u] != Integer.MIN_VALUE) {
-                for (int v : graph.getAdjacent(u)) {
-                    int weight = graph.getWeight(u, v);
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    int v = graph.getEdgeTarget(e);
+                    int weight = graph.getEdgeWeight(e);
                     if (dist[u] + weight > dist[v]) {
                         dist[v] = dist[u] + weight;
                         prev[v] = u;
@@ -74,44 +83,126 @@ public class DAGShortestPath extends BaseMetrics {
             }
             incrementOperationCount();
         }
+        endPhase(Phase.RELAXATION, phase);
 
         return new ShortestPathResult(dist, prev, getOperationCount(), getTimeNanos());
     }
 
     public CriticalPathResult findCriticalPath() {
+        return findCriticalPath(new int[graph.getVerticesCount()]);
+    }
+
+    /**
+     * Critical path method over a single topological order: a forward pass for earliest start/finish,
+     * a backward pass for latest start/finish, then slack = latest start - earliest start.
+     * Edge weights are lags between tasks, {@code durations[v]} is the duration of task v itself.
+     */
+    public CriticalPathResult findCriticalPath(int[] durations) {
         reset();
 
         int vertices = graph.getVerticesCount();
-        int maxLength = Integer.MIN_VALUE;
-        List<Integer> criticalPath = new ArrayList<>();
-        int bestEnd = -1;
-        int bestStart = -1;
-        int[] bestPrev = null;
-
-        // Try all possible sources
-        for (int source = 0; source < vertices; source++) {
-            ShortestPathResult result = longestPathsFromSource(source);
-            incrementOperationCount(result.getOperations());
-
-            for (int i = 0; i < vertices; i++) {
-                if (result.getDistances()[i] > maxLength && result.getDistances()[i] != Integer.MIN_VALUE) {
-                    maxLength = result.getDistances()[i];
-                    bestEnd = i;
-                    bestStart = source;
-                    bestPrev = result.getPredecessors();
+        if (durations.length != vertices) {
+            throw new IllegalArgumentException("Expected " + vertices + " durations, got " + durations.length);
+        }
+
+        TopologicalSort topo = new TopologicalSort(graph);
+        long phase = startPhase();
+        int[] topoOrder = topo.kahnTopologicalSort().getOrderArray();
+        incrementOperationCount(topo.getOperationCount());
+        endPhase(Phase.TOPOLOGICAL_ORDER, phase);
+        phase = startPhase();
+
+        int[] earliestStart = new int[vertices];
+        int[] earliestFinish = new int[vertices];
+        int[] prev = new int[vertices];
+        Arrays.fill(prev, -1);
+
+        // Forward pass
+        for (int u : topoOrder) {
+            earliestFinish[u] = earliestStart[u] + durations[u];
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                int v = graph.getEdgeTarget(e);
+                int start = earliestFinish[u] + graph.getEdgeWeight(e);
+                if (start > earliestStart[v]) {
+                    earliestStart[v] = start;
+                    prev[v] = u;
                 }
                 incrementOperationCount();
             }
+            incrementOperationCount();
         }
 
-        if (bestPrev != null && bestStart != -1) {
-            criticalPath = reconstructPath(bestPrev, bestStart, bestEnd);
+        int length = 0;
+        int end = -1;
+        for (int v = 0; v < vertices; v++) {
+            if (end == -1 || earliestFinish[v] > length) {
+                length = earliestFinish[v];
+                end = v;
+            }
+        }
+
+        // Backward pass
+        int[] latestStart = new int[vertices];
+        int[] latestFinish = new int[vertices];
+        int[] slack = new int[vertices];
+        for (int i = topoOrder.length - 1; i >= 0; i--) {
+            int u = topoOrder[i];
+            int finish = length;
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                finish = Math.min(finish, latestStart[graph.getEdgeTarget(e)] - graph.getEdgeWeight(e));
+                incrementOperationCount();
+            }
+            latestFinish[u] = finish;
+            latestStart[u] = finish - durations[u];
+            slack[u] = latestStart[u] - earliestStart[u];
+            incrementOperationCount();
+        }
+
+        endPhase(Phase.RELAXATION, phase);
+
+        List<Integer> criticalPath = end == -1 ? new ArrayList<>() : reconstructPath(prev, end);
+
+        return new CriticalPathResult(criticalPath, length, earliestStart, earliestFinish,
+                latestStart, latestFinish, slack, getOperationCount(), getTimeNanos());
+    }
+
+    /**
+     * Bottom level of every task: the longest chain of durations (and edge weights as lags, if asked)
+     * from the start of the task to the end of a sink. This is the usual list-scheduling priority.
+     */
+    public int[] longestPathsToSink(int[] durations, boolean edgeWeightsAsLags) {
+        reset();
+
+        int vertices = graph.getVerticesCount();
+        if (durations.length != vertices) {
+            throw new IllegalArgumentException("Expected " + vertices + " durations, got " + durations.length);
+        }
+
+        TopologicalSort topo = new TopologicalSort(graph);
+        long phase = startPhase();
+        int[] topoOrder = topo.kahnTopologicalSort().getOrderArray();
+        incrementOperationCount(topo.getOperationCount());
+        endPhase(Phase.TOPOLOGICAL_ORDER, phase);
+        phase = startPhase();
+
+        int[] bottomLevel = new int[vertices];
+        for (int i = topoOrder.length - 1; i >= 0; i--) {
+            int u = topoOrder[i];
+            int tail = 0;
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                int lag = edgeWeightsAsLags ? graph.getEdgeWeight(e) : 0;
+                tail = Math.max(tail, lag + bottomLevel[graph.getEdgeTarget(e)]);
+                incrementOperationCount();
+            }
+            bottomLevel[u] = durations[u] + tail;
+            incrementOperationCount();
         }
+        endPhase(Phase.RELAXATION, phase);
 
-        return new CriticalPathResult(criticalPath, maxLength, getOperationCount(), getTimeNanos());
+        return bottomLevel;
     }
 
-    private List<Integer> reconstructPath(int[] prev, int source, int target) {
+    private List<Integer> reconstructPath(int[] prev, int target) {
         List<Integer> path = new ArrayList<>();
         for (int at = target; at != -1; at = prev[at]) {
             path.add(at);
@@ -142,18 +233,35 @@ public class DAGShortestPath extends BaseMetrics {
     public static class CriticalPathResult {
         private final List<Integer> path;
         private final int length;
+        private final int[] earliestStart;
+        private final int[] earliestFinish;
+        private final int[] latestStart;
+        private final int[] latestFinish;
+        private final int[] slack;
         private final long operations;
         private final long timeNanos;
 
-        public CriticalPathResult(List<Integer> path, int length, long operations, long timeNanos) {
+        public CriticalPathResult(List<Integer> path, int length, int[] earliestStart, int[] earliestFinish,
+                                  int[] latestStart, int[] latestFinish, int[] slack,
+                                  long operations, long timeNanos) {
             this.path = path;
             this.length = length;
+            this.earliestStart = earliestStart;
+            this.earliestFinish = earliestFinish;
+            this.latestStart = latestStart;
+            this.latestFinish = latestFinish;
+            this.slack = slack;
             this.operations = operations;
             this.timeNanos = timeNanos;
         }
 
         public List<Integer> getPath() { return path; }
         public int getLength() { return length; }
+        public int[] getEarliestStart() { return earliestStart; }
+        public int[] getEarliestFinish() { return earliestFinish; }
+        public int[] getLatestStart() { return latestStart; }
+        public int[] getLatestFinish() { return latestFinish; }
+        public int[] getSlack() { return slack; }
         public long getOperations() { return operations; }
         public long getTimeNanos() { return timeNanos; }
     }
@@ -0,0 +1,203 @@
+package graph.dagsp;
+
+import graph.common.BaseMetrics;
+import graph.common.Graph;
+import graph.common.IntHeap;
+import graph.scc.SCCFinder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single-source shortest paths on any graph with non-negative weights inside its cycles. Components of the
+ * SCC decomposition are visited in topological order: a single-vertex component just relaxes its out-edges
+ * as in {@link DAGShortestPath}, a larger one runs Dijkstra over its own vertices, seeded with the distances
+ * that entered it from earlier components. The heap only ever holds one component, so the cost stays close
+ * to linear when the SCCs are small. Edges between components may be negative. Distances are longs.
+ */
+public class HybridShortestPath extends BaseMetrics {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final Graph graph;
+    private final int[] componentOf;
+    private final int[] offsets;
+    private final int[] members;
+    private final boolean reverseTopological;
+    private final IntHeap heap = new IntHeap();
+
+    /**
+     * Decomposes the graph once; every query reuses the decomposition.
+     */
+    public HybridShortestPath(Graph graph) {
+        this.graph = graph;
+        long phase = startPhase();
+        SCCFinder.SCCResult sccs = new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs();
+        endPhase(Phase.DFS_FIRST_PASS, phase);
+        this.componentOf = sccs.getComponentOf();
+        this.offsets = sccs.getComponentOffsets();
+        this.members = sccs.getComponentVertices();
+        this.reverseTopological = sccs.isReverseTopological();
+    }
+
+    /**
+     * Reuses a decomposition computed elsewhere, such as a cached analysis: {@code componentOf} maps every
+     * vertex to its SCC and {@code topologicalOrder} lists the component ids in topological order.
+     */
+    public HybridShortestPath(Graph graph, int[] componentOf, int[] topologicalOrder) {
+        int vertices = graph.getVerticesCount();
+        if (componentOf.length != vertices) {
+            throw new IllegalArgumentException("Expected " + vertices + " component ids, got " + componentOf.length);
+        }
+        this.graph = graph;
+        // Renumber components by topological position, then group their members by counting sort
+        int count = topologicalOrder.length;
+        int[] rank = new int[count];
+        for (int i = 0; i < count; i++) {
+            rank[topologicalOrder[i]] = i;
+        }
+        this.componentOf = new int[vertices];
+        this.offsets = new int[count + 1];
+        for (int v = 0; v < vertices; v++) {
+            this.componentOf[v] = rank[componentOf[v]];
+            offsets[this.componentOf[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        this.members = new int[vertices];
+        int[] next = Arrays.copyOf(offsets, count);
+        for (int v = 0; v < vertices; v++) {
+            members[next[this.componentOf[v]]++] = v;
+        }
+        this.reverseTopological = false;
+    }
+
+    public int getComponentCount() {
+        return offsets.length - 1;
+    }
+
+    public DistanceResult shortestPathsFromSource(int source) {
+        int vertices = graph.getVerticesCount();
+        if (source < 0 || source >= vertices) {
+            throw new IndexOutOfBoundsException("Source " + source + " out of range [0, " + vertices + ")");
+        }
+        reset();
+        long phase = startPhase();
+        long[] dist = new long[vertices];
+        int[] prev = new int[vertices];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+
+        // Components before the source's one in topological order cannot be reached
+        int count = getComponentCount();
+        int first = componentOf[source];
+        int step = reverseTopological ? -1 : 1;
+        int end = reverseTopological ? -1 : count;
+        for (int c = first; c != end; c += step) {
+            if (offsets[c + 1] - offsets[c] == 1) {
+                int u = members[offsets[c]];
+                if (dist[u] != UNREACHABLE) {
+                    relaxOutEdges(u, dist, prev);
+                }
+            } else {
+                dijkstra(c, dist, prev);
+            }
+            incrementOperationCount();
+        }
+        endPhase(Phase.RELAXATION, phase);
+
+        return new DistanceResult(dist, prev, getOperationCount(), getTimeNanos());
+    }
+
+    private void relaxOutEdges(int u, long[] dist, int[] prev) {
+        for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+            int v = graph.getEdgeTarget(e);
+            int weight = graph.getEdgeWeight(e);
+            if (v == u && weight < 0) {
+                throw new IllegalArgumentException("Negative weight " + weight + " on self-loop at " + u);
+            }
+            long candidate = dist[u] + weight;
+            if (candidate < dist[v]) {
+                dist[v] = candidate;
+                prev[v] = u;
+            }
+            incrementOperationCount();
+        }
+    }
+
+    // Lazy-deletion Dijkstra: a popped entry whose key is above the vertex's distance is stale and skipped.
+    // Edges leaving the component are relaxed too, so later components see the final values.
+    private void dijkstra(int component, long[] dist, int[] prev) {
+        heap.clear();
+        for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+            int u = members[i];
+            if (dist[u] != UNREACHABLE) {
+                heap.push(dist[u], u);
+            }
+        }
+        while (!heap.isEmpty()) {
+            long key = heap.peekKey();
+            int u = heap.pop();
+            if (key > dist[u]) {
+                continue;
+            }
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                int v = graph.getEdgeTarget(e);
+                int weight = graph.getEdgeWeight(e);
+                boolean inside = componentOf[v] == component;
+                if (inside && weight < 0) {
+                    throw new IllegalArgumentException("Negative weight " + weight + " on edge " + u + "->" + v
+                            + " inside a cycle");
+                }
+                long candidate = key + weight;
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    prev[v] = u;
+                    if (inside) {
+                        heap.push(candidate, v);
+                    }
+                }
+                incrementOperationCount();
+            }
+        }
+    }
+
+    public static class DistanceResult {
+        private final long[] distances;
+        private final int[] predecessors;
+        private final long operations;
+        private final long timeNanos;
+
+        public DistanceResult(long[] distances, int[] predecessors, long operations, long timeNanos) {
+            this.distances = distances;
+            this.predecessors = predecessors;
+            this.operations = operations;
+            this.timeNanos = timeNanos;
+        }
+
+        /**
+         * Distance of every vertex, {@link HybridShortestPath#UNREACHABLE} where there is no path.
+         */
+        public long[] getDistances() { return distances; }
+        public int[] getPredecessors() { return predecessors; }
+        public long getOperations() { return operations; }
+        public long getTimeNanos() { return timeNanos; }
+
+        /**
+         * Vertices from the source to {@code target}, empty if the target is unreachable.
+         */
+        public List<Integer> getPath(int target) {
+            if (distances[target] == UNREACHABLE) {
+                return Collections.emptyList();
+            }
+            List<Integer> path = new ArrayList<>();
+            for (int at = target; at != -1; at = predecessors[at]) {
+                path.add(at);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+    }
+}
\ No newline at end of file
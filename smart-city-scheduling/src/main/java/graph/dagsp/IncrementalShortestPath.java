@@ -0,0 +1,249 @@
+package graph.dagsp;
+
+import graph.common.BaseMetrics;
+import graph.common.Graph;
+import graph.common.IntHeap;
+import graph.common.IntList;
+import graph.topo.DynamicTopologicalSort;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shortest or longest paths from one source, kept up to date while edges are reweighted, inserted and removed.
+ * An edit to u->v re-evaluates v from its in-edges; a vertex whose distance changes queues its successors, and
+ * queued vertices are taken in topological order, so each is evaluated once after all of its inputs are final.
+ * The update stops as soon as the queue runs dry, which makes its cost the in-degree of the vertices the edit
+ * actually reaches rather than the size of the graph. The order is kept by a {@link DynamicTopologicalSort};
+ * an insertion that would close a cycle is rejected before anything changes.
+ * <p>
+ * Distances always equal those of a fresh {@link DAGShortestPath} run. Among equally good predecessors the
+ * current one is kept, so ties may resolve differently. Not thread-safe.
+ */
+public class IncrementalShortestPath extends BaseMetrics {
+    private final int vertices;
+    private final int source;
+    private final boolean longest;
+    private final int unreached;
+    private final DynamicTopologicalSort order;
+    private final IntList[] successors;
+    private final IntList[] predecessors;
+    private final IntList[] inWeights;
+    private final int[] dist;
+    private final int[] prev;
+    private final boolean[] queued;
+    private final IntHeap queue = new IntHeap();
+    private final IntList changed = new IntList();
+
+    /**
+     * Copies the edges of {@code dag} and solves it once from {@code source}; throws IllegalArgumentException if
+     * the graph has cycles.
+     */
+    public IncrementalShortestPath(Graph dag, int source, boolean longest) {
+        this.vertices = dag.getVerticesCount();
+        if (source < 0 || source >= vertices) {
+            throw new IndexOutOfBoundsException("Source " + source + " out of range [0, " + vertices + ")");
+        }
+        this.source = source;
+        this.longest = longest;
+        this.unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        this.order = new DynamicTopologicalSort(dag);
+        this.successors = new IntList[vertices];
+        this.predecessors = new IntList[vertices];
+        this.inWeights = new IntList[vertices];
+        for (int v = 0; v < vertices; v++) {
+            successors[v] = new IntList(dag.getOutDegree(v));
+            predecessors[v] = new IntList(dag.getInDegree(v));
+            inWeights[v] = new IntList(dag.getInDegree(v));
+        }
+        for (int u = 0; u < vertices; u++) {
+            for (int e = dag.getEdgeStart(u); e < dag.getEdgeEnd(u); e++) {
+                int v = dag.getEdgeTarget(e);
+                successors[u].add(v);
+                predecessors[v].add(u);
+                inWeights[v].add(dag.getEdgeWeight(e));
+            }
+        }
+        this.dist = new int[vertices];
+        this.prev = new int[vertices];
+        this.queued = new boolean[vertices];
+        solve(dag);
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public boolean isLongest() {
+        return longest;
+    }
+
+    /**
+     * Distance of {@code vertex}, {@code Integer.MAX_VALUE} (shortest) or {@code Integer.MIN_VALUE} (longest)
+     * where there is no path.
+     */
+    public int getDistance(int vertex) {
+        return dist[vertex];
+    }
+
+    public int getPredecessor(int vertex) {
+        return prev[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return dist[vertex] != unreached;
+    }
+
+    /**
+     * Vertices whose distance the latest update changed, in topological order; everything else kept its value.
+     */
+    public int[] getChangedVertices() {
+        return changed.toArray();
+    }
+
+    /**
+     * Snapshot of the current state; the operation count and time are those of the latest update.
+     */
+    public DAGShortestPath.ShortestPathResult toResult() {
+        return new DAGShortestPath.ShortestPathResult(dist.clone(), prev.clone(), getOperationCount(),
+                getTimeNanos());
+    }
+
+    /**
+     * Sets the weight of u->v, of every copy if there are parallel edges; returns false if there is none.
+     */
+    public boolean updateWeight(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        reset();
+        IntList from = predecessors[v];
+        boolean found = false;
+        for (int i = 0; i < from.size(); i++) {
+            if (from.get(i) == u) {
+                inWeights[v].set(i, weight);
+                found = true;
+            }
+        }
+        if (found) {
+            propagate(v);
+        }
+        return found;
+    }
+
+    /**
+     * Inserts u->v. Throws IllegalArgumentException, leaving everything unchanged, if v already reaches u.
+     */
+    public void addEdge(int u, int v, int weight) {
+        reset();
+        order.addEdge(u, v);
+        successors[u].add(v);
+        predecessors[v].add(u);
+        inWeights[v].add(weight);
+        propagate(v);
+    }
+
+    /**
+     * Removes one copy of u->v; returns false if it does not exist.
+     */
+    public boolean removeEdge(int u, int v) {
+        reset();
+        if (!order.removeEdge(u, v)) {
+            return false;
+        }
+        successors[u].swapRemove(successors[u].indexOf(v));
+        int i = predecessors[v].indexOf(u);
+        predecessors[v].swapRemove(i);
+        inWeights[v].swapRemove(i);
+        propagate(v);
+        return true;
+    }
+
+    // Full forward pass, as in PathSession, from the source's position on
+    private void solve(Graph dag) {
+        long phase = startPhase();
+        Arrays.fill(dist, unreached);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+        List<Integer> topological = order.getOrder();
+        for (int i = order.getPosition(source); i < vertices; i++) {
+            int u = topological.get(i);
+            if (dist[u] == unreached) {
+                continue;
+            }
+            for (int e = dag.getEdgeStart(u); e < dag.getEdgeEnd(u); e++) {
+                int v = dag.getEdgeTarget(e);
+                int candidate = dist[u] + dag.getEdgeWeight(e);
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    prev[v] = u;
+                }
+                incrementOperationCount();
+            }
+            incrementOperationCount();
+        }
+        endPhase(Phase.RELAXATION, phase);
+    }
+
+    // Successors have later positions than the vertex that queued them, so popping by position never revisits
+    private void propagate(int start) {
+        long phase = startPhase();
+        changed.clear();
+        enqueue(start);
+        while (!queue.isEmpty()) {
+            int v = queue.pop();
+            queued[v] = false;
+            if (evaluate(v)) {
+                changed.add(v);
+                IntList next = successors[v];
+                for (int i = 0; i < next.size(); i++) {
+                    enqueue(next.get(i));
+                }
+                incrementOperationCount(next.size());
+            }
+            incrementOperationCount();
+        }
+        endPhase(Phase.RELAXATION, phase);
+    }
+
+    private void enqueue(int vertex) {
+        if (!queued[vertex]) {
+            queued[vertex] = true;
+            queue.push(order.getPosition(vertex), vertex);
+        }
+    }
+
+    // Recomputes one vertex from its in-edges; true if its distance changed
+    private boolean evaluate(int v) {
+        if (v == source) {
+            return false;
+        }
+        IntList from = predecessors[v];
+        IntList weights = inWeights[v];
+        int best = unreached;
+        int bestPrev = -1;
+        for (int i = 0; i < from.size(); i++) {
+            int u = from.get(i);
+            if (dist[u] == unreached) {
+                continue;
+            }
+            int candidate = dist[u] + weights.get(i);
+            if (bestPrev == -1 || (longest ? candidate > best : candidate < best)
+                    || (candidate == best && u == prev[v])) {
+                best = candidate;
+                bestPrev = u;
+            }
+        }
+        incrementOperationCount(from.size());
+        prev[v] = bestPrev;
+        if (best == dist[v]) {
+            return false;
+        }
+        dist[v] = best;
+        return true;
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertices) {
+            throw new IndexOutOfBoundsException("Vertex " + vertex + " outside [0, " + vertices + ")");
+        }
+    }
+}
\ No newline at end of file
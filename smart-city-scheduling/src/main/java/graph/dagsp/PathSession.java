@@ -0,0 +1,138 @@
+package graph.dagsp;
+
+import graph.common.BaseMetrics;
+import graph.common.Graph;
+import graph.topo.TopologicalSort;
+import java.util.Arrays;
+
+/**
+ * Shortest and longest path solver bound to one DAG for many queries. The topological order is computed once
+ * and every query reuses the same distance and predecessor arrays and the same {@link PathView}, so after
+ * construction a query allocates nothing. A view is overwritten by the next query on its session, and a
+ * session is not thread-safe: give each thread its own.
+ */
+public class PathSession extends BaseMetrics {
+    private final Graph graph;
+    private final int[] order;
+    private final int[] position;
+    private final int[] dist;
+    private final int[] prev;
+    private final PathView view = new PathView();
+
+    public PathSession(Graph dag) {
+        this.graph = dag;
+        this.order = new TopologicalSort(dag).kahnTopologicalSort().getOrderArray();
+        int vertices = dag.getVerticesCount();
+        this.position = new int[vertices];
+        for (int i = 0; i < vertices; i++) {
+            position[order[i]] = i;
+        }
+        this.dist = new int[vertices];
+        this.prev = new int[vertices];
+    }
+
+    /**
+     * The cached topological order; must not be modified.
+     */
+    public int[] getTopologicalOrder() {
+        return order;
+    }
+
+    /**
+     * Same distances as {@link DAGShortestPath#shortestPathsFromSource}, unreachable vertices at
+     * {@code Integer.MAX_VALUE}.
+     */
+    public PathView shortestPathsFromSource(int source) {
+        return solve(source, false);
+    }
+
+    /**
+     * Same distances as {@link DAGShortestPath#longestPathsFromSource}, unreachable vertices at
+     * {@code Integer.MIN_VALUE}.
+     */
+    public PathView longestPathsFromSource(int source) {
+        return solve(source, true);
+    }
+
+    private PathView solve(int source, boolean longest) {
+        if (source < 0 || source >= order.length) {
+            throw new IndexOutOfBoundsException("Source " + source + " out of range [0, " + order.length + ")");
+        }
+        reset();
+        long phase = startPhase();
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        Arrays.fill(dist, unreached);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+
+        // Nothing before the source in topological order can be reached from it
+        for (int i = position[source]; i < order.length; i++) {
+            int u = order[i];
+            if (dist[u] == unreached) {
+                continue;
+            }
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                int v = graph.getEdgeTarget(e);
+                int candidate = dist[u] + graph.getEdgeWeight(e);
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    prev[v] = u;
+                }
+                incrementOperationCount();
+            }
+            incrementOperationCount();
+        }
+        endPhase(Phase.RELAXATION, phase);
+
+        view.source = source;
+        view.longest = longest;
+        return view;
+    }
+
+    /**
+     * Result of the latest query on the owning session. The arrays are the session's own and must not be modified.
+     */
+    public final class PathView {
+        private int source = -1;
+        private boolean longest;
+
+        private PathView() {
+        }
+
+        public int getSource() { return source; }
+        public boolean isLongest() { return longest; }
+        public int[] getDistances() { return dist; }
+        public int[] getPredecessors() { return prev; }
+
+        public int getDistance(int vertex) {
+            return dist[vertex];
+        }
+
+        public boolean isReachable(int vertex) {
+            return dist[vertex] != (longest ? Integer.MIN_VALUE : Integer.MAX_VALUE);
+        }
+
+        /**
+         * Writes the path from the source to {@code target} into {@code buffer} and returns its vertex count,
+         * or -1 if the target is unreachable. The buffer needs room for the whole path; V always suffices.
+         */
+        public int pathTo(int target, int[] buffer) {
+            if (!isReachable(target)) {
+                return -1;
+            }
+            int length = 0;
+            for (int v = target; v != -1; v = prev[v]) {
+                length++;
+            }
+            if (length > buffer.length) {
+                throw new IllegalArgumentException("Path of " + length + " vertices does not fit a buffer of "
+                        + buffer.length);
+            }
+            int i = length;
+            for (int v = target; v != -1; v = prev[v]) {
+                buffer[--i] = v;
+            }
+            return length;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package graph.model;
+
+import graph.common.Graph;
+import java.util.Arrays;
+
+/**
+ * Graph input held in parallel primitive arrays (12 bytes per edge, no per-edge objects)
+ */
+public class EdgeList implements EdgeSink {
+    private int vertices = -1;
+    private Integer source;
+    private int[] from;
+    private int[] to;
+    private int[] weight;
+    private int size;
+
+    public EdgeList() {
+        this(16);
+    }
+
+    public EdgeList(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.from = new int[initial];
+        this.to = new int[initial];
+        this.weight = new int[initial];
+    }
+
+    public int getVertices() { return vertices; }
+    public void setVertices(int vertices) { this.vertices = vertices; }
+
+    public Integer getSource() { return source; }
+    public void setSource(Integer source) { this.source = source; }
+
+    public int size() { return size; }
+
+    public int getFrom(int i) { return from[i]; }
+    public int getTo(int i) { return to[i]; }
+    public int getWeight(int i) { return weight[i]; }
+
+    @Override
+    public void addEdge(int u, int v, int w) {
+        if (size == from.length) {
+            int capacity = size + (size >> 1) + 1;
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+        }
+        from[size] = u;
+        to[size] = v;
+        weight[size] = w;
+        size++;
+    }
+
+    public Graph toGraph() {
+        if (vertices < 0) {
+            throw new IllegalStateException("Vertex count not set");
+        }
+        return Graph.fromEdgeArrays(vertices, from, to, weight, size);
+    }
+
+    public GraphData toGraphData() {
+        GraphData data = new GraphData(true, vertices, null, source, "edge");
+        for (int i = 0; i < size; i++) {
+            data.addEdge(from[i], to[i], weight[i]);
+        }
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "EdgeList{vertices=" + vertices + ", edges=" + size + "}";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package graph.model;
+
+import java.io.IOException;
+
+/**
+ * Receives a stream of weighted edges, e.g. an {@link EdgeList} in memory or a file writer.
+ */
+public interface EdgeSink {
+    void addEdge(int from, int to, int weight) throws IOException;
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package graph.model;
 
+import graph.common.Graph;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -44,6 +45,14 @@ public class GraphData {
         this.edges.add(new Edge(from, to, weight));
     }
 
+    public Graph toGraph() {
+        Graph.Builder builder = Graph.builder(vertices);
+        for (Edge edge : edges) {
+            builder.addEdge(edge.getFrom(), edge.getTo(), edge.getWeight());
+        }
+        return builder.build();
+    }
+
     public static class Edge {
         private int from;
         private int to;
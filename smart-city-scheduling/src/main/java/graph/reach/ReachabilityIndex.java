@@ -0,0 +1,292 @@
+package graph.reach;
+
+import graph.common.Graph;
+import graph.common.IntHeap;
+import graph.scc.SCCFinder;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Answers "can u reach v?" from labels on the condensation graph, so vertices in one SCC answer at once and
+ * most other queries are settled by a few integer comparisons:
+ * <ul>
+ * <li>two topological orders (FELINE): u reaches v only if v comes after u in both,</li>
+ * <li>randomized DFS interval labels (GRAIL): u reaches v only if v's interval lies inside u's,</li>
+ * <li>DFS tree intervals of the first traversal: v inside u's tree subtree means u reaches v.</li>
+ * </ul>
+ * Queries the labels cannot settle fall back to a DFS from u that only enters components whose labels still
+ * admit v. The labels take {@code 3 + 2 * traversals} ints per component. Safe for concurrent queries.
+ */
+public class ReachabilityIndex {
+    public static final int DEFAULT_TRAVERSALS = 2;
+
+    // Per-component label layout in one int array, so a query touches two short runs of memory
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int TREE_PRE = 2;
+    private static final int INTERVALS = 3;
+    // The first interval label is a DFS post-order, so it doubles as the tree post-order
+    private static final int TREE_POST = INTERVALS + 1;
+
+    private final int[] componentOf;
+    private final Graph condensation;
+    private final int stride;
+    private final int[] labels;
+
+    /**
+     * Finds the SCCs of {@code graph} and indexes its condensation.
+     */
+    public ReachabilityIndex(Graph graph) {
+        this(new SCCFinder(graph, SCCFinder.Algorithm.TARJAN));
+    }
+
+    private ReachabilityIndex(SCCFinder finder) {
+        this(finder.condense(finder.findSCCs(), SCCFinder.WeightAggregation.MIN));
+    }
+
+    private ReachabilityIndex(SCCFinder.CondensationResult condensed) {
+        this(condensed.getComponentOf(), condensed.getGraph(), DEFAULT_TRAVERSALS, 1L);
+    }
+
+    /**
+     * Indexes an existing condensation, for example one taken from the analysis cache.
+     *
+     * @param componentOf component id of every vertex of the original graph
+     * @param traversals number of randomized interval labels; more labels reject more queries up front
+     */
+    public ReachabilityIndex(int[] componentOf, Graph condensation, int traversals, long seed) {
+        if (traversals < 1) {
+            throw new IllegalArgumentException("At least one traversal is needed: " + traversals);
+        }
+        this.componentOf = componentOf;
+        this.condensation = condensation;
+        this.stride = INTERVALS + 2 * traversals;
+        this.labels = new int[condensation.getVerticesCount() * stride];
+        labelOrders();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int k = 0; k < traversals; k++) {
+            labelIntervals(k, random.split());
+        }
+    }
+
+    public int getComponentCount() {
+        return condensation.getVerticesCount();
+    }
+
+    public int getComponent(int vertex) {
+        return componentOf[vertex];
+    }
+
+    /**
+     * True if there is a path from {@code from} to {@code to}; every vertex reaches itself.
+     */
+    public boolean reaches(int from, int to) {
+        int a = componentOf[from];
+        int b = componentOf[to];
+        return a == b || reachesComponent(a, b);
+    }
+
+    /**
+     * Same as {@link #reaches} on component ids of the condensation graph.
+     */
+    public boolean reachesComponent(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        int la = a * stride;
+        int lb = b * stride;
+        if (!admits(la, lb)) {
+            return false;
+        }
+        return treeContains(la, lb) || search(a, b);
+    }
+
+    // Necessary conditions for a to reach b; false means it certainly does not
+    private boolean admits(int la, int lb) {
+        if (labels[la + X] >= labels[lb + X] || labels[la + Y] >= labels[lb + Y]) {
+            return false;
+        }
+        for (int i = INTERVALS; i < stride; i += 2) {
+            if (labels[la + i] > labels[lb + i] || labels[lb + i + 1] > labels[la + i + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sufficient condition: b lies in a's subtree of the first DFS tree
+    private boolean treeContains(int la, int lb) {
+        return labels[la + TREE_PRE] <= labels[lb + TREE_PRE] && labels[lb + TREE_POST] <= labels[la + TREE_POST];
+    }
+
+    private boolean search(int a, int b) {
+        Scratch scratch = Scratch.get(getComponentCount());
+        int stamp = scratch.nextStamp();
+        int[] seen = scratch.seen;
+        int[] stack = scratch.stack;
+        int lb = b * stride;
+        int top = 0;
+        stack[top++] = a;
+        seen[a] = stamp;
+        while (top > 0) {
+            int u = stack[--top];
+            for (int e = condensation.getEdgeStart(u); e < condensation.getEdgeEnd(u); e++) {
+                int w = condensation.getEdgeTarget(e);
+                if (w == b) {
+                    return true;
+                }
+                if (seen[w] != stamp) {
+                    seen[w] = stamp;
+                    int lw = w * stride;
+                    if (admits(lw, lb)) {
+                        if (treeContains(lw, lb)) {
+                            return true;
+                        }
+                        stack[top++] = w;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // X: Kahn order with FIFO ties. Y: Kahn order that always takes the ready component with the largest X,
+    // which keeps the two orders far apart and makes their intersection a tight filter.
+    private void labelOrders() {
+        int n = getComponentCount();
+        int[] inDegree = new int[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int c = 0; c < n; c++) {
+            inDegree[c] = condensation.getInDegree(c);
+            if (inDegree[c] == 0) {
+                queue[tail++] = c;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            labels[u * stride + X] = head;
+            for (int e = condensation.getEdgeStart(u); e < condensation.getEdgeEnd(u); e++) {
+                int v = condensation.getEdgeTarget(e);
+                if (--inDegree[v] == 0) {
+                    queue[tail++] = v;
+                }
+            }
+        }
+        if (tail != n) {
+            throw new IllegalArgumentException("Condensation graph has a cycle");
+        }
+
+        IntHeap ready = new IntHeap(n);
+        for (int c = 0; c < n; c++) {
+            inDegree[c] = condensation.getInDegree(c);
+            if (inDegree[c] == 0) {
+                ready.push(-labels[c * stride + X], c);
+            }
+        }
+        for (int rank = 0; !ready.isEmpty(); rank++) {
+            int u = ready.pop();
+            labels[u * stride + Y] = rank;
+            for (int e = condensation.getEdgeStart(u); e < condensation.getEdgeEnd(u); e++) {
+                int v = condensation.getEdgeTarget(e);
+                if (--inDegree[v] == 0) {
+                    ready.push(-labels[v * stride + X], v);
+                }
+            }
+        }
+    }
+
+    // One DFS from every root, children visited from a random rotation of the edge list. Post-order rank r(u)
+    // and low(u) = min of r over everything u reaches give the interval [low, r]; the first traversal also
+    // records pre-order ranks, which with its post-order give exact tree intervals.
+    private void labelIntervals(int k, SplittableRandom random) {
+        int n = getComponentCount();
+        int lowAt = INTERVALS + 2 * k;
+        int postAt = lowAt + 1;
+        boolean tree = k == 0;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] offset = new int[n];
+        int[] next = new int[n];
+        int pre = 0;
+        int post = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (visited[root] || condensation.getInDegree(root) != 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            visited[root] = true;
+            if (tree) {
+                labels[root * stride + TREE_PRE] = pre++;
+            }
+            offset[root] = rotation(root, random);
+            next[root] = 0;
+            while (top > 0) {
+                int u = stack[top - 1];
+                int start = condensation.getEdgeStart(u);
+                int degree = condensation.getEdgeEnd(u) - start;
+                int pushed = -1;
+                while (next[u] < degree) {
+                    int w = condensation.getEdgeTarget(start + (offset[u] + next[u]++) % degree);
+                    if (!visited[w]) {
+                        pushed = w;
+                        break;
+                    }
+                }
+                if (pushed >= 0) {
+                    visited[pushed] = true;
+                    if (tree) {
+                        labels[pushed * stride + TREE_PRE] = pre++;
+                    }
+                    offset[pushed] = rotation(pushed, random);
+                    next[pushed] = 0;
+                    stack[top++] = pushed;
+                } else {
+                    top--;
+                    int lu = u * stride;
+                    labels[lu + postAt] = post++;
+                    // Every successor is finished already, since the condensation is acyclic
+                    int low = labels[lu + postAt];
+                    for (int e = start; e < start + degree; e++) {
+                        low = Math.min(low, labels[condensation.getEdgeTarget(e) * stride + lowAt]);
+                    }
+                    labels[lu + lowAt] = low;
+                }
+            }
+        }
+    }
+
+    private int rotation(int u, SplittableRandom random) {
+        int degree = condensation.getEdgeEnd(u) - condensation.getEdgeStart(u);
+        return degree > 1 ? random.nextInt(degree) : 0;
+    }
+
+    // Per-thread DFS stack and stamped visited marks for the fallback search
+    private static final class Scratch {
+        private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+
+        private int[] seen = new int[0];
+        private int[] stack = new int[0];
+        private int stamp;
+
+        static Scratch get(int size) {
+            Scratch scratch = LOCAL.get();
+            if (scratch.seen.length < size) {
+                scratch.seen = new int[size];
+                scratch.stack = new int[size];
+                scratch.stamp = 0;
+            }
+            return scratch;
+        }
+
+        int nextStamp() {
+            if (++stamp == 0) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+}
\ No newline at end of file
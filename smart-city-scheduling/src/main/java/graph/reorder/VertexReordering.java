@@ -0,0 +1,281 @@
+package graph.reorder;
+
+import graph.common.Graph;
+import graph.dagsp.DAGShortestPath;
+import graph.scc.SCCFinder;
+import graph.topo.TopologicalSort;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Relabels vertices so that vertices visited close together in time also sit close together in memory,
+ * which turns the {@code dist[v]}, {@code index[v]} and {@code inDegree[v]} accesses of the algorithms from
+ * cache misses into mostly sequential reads. Run the algorithms on {@link #getGraph()}, translate inputs with
+ * {@link #toReordered(int)} and results back with the {@code toOriginal} overloads. The mapped results are
+ * valid for the original graph with the same distances and components; orders and ties between equal paths
+ * may come out differently.
+ */
+public final class VertexReordering {
+    private static final int INSERTION_SORT_MAX = 32;
+
+    public enum Strategy {
+        /** Breadth-first over in- and out-edges, one component after another. */
+        BFS,
+        /** Reverse Cuthill-McKee: breadth-first from a low-degree vertex, neighbours by ascending degree. */
+        RCM,
+        /** Components of the condensation in topological order; for a DAG a plain topological order. */
+        TOPOLOGICAL,
+        /** By descending total degree, so the hubs share a few cache lines. */
+        DEGREE
+    }
+
+    private final int[] reorderedId;
+    private final int[] originalId;
+    private final Graph graph;
+
+    private VertexReordering(Graph original, int[] originalId) {
+        int n = original.getVerticesCount();
+        if (originalId.length != n) {
+            throw new IllegalArgumentException("Order has " + originalId.length + " entries for " + n + " vertices");
+        }
+        this.originalId = originalId;
+        this.reorderedId = new int[n];
+        Arrays.fill(reorderedId, -1);
+        for (int i = 0; i < n; i++) {
+            int v = originalId[i];
+            if (v < 0 || v >= n || reorderedId[v] != -1) {
+                throw new IllegalArgumentException("Order is not a permutation of [0, " + n + "): " + v + " at " + i);
+            }
+            reorderedId[v] = i;
+        }
+        this.graph = relabel(original);
+    }
+
+    public static VertexReordering of(Graph graph, Strategy strategy) {
+        switch (strategy) {
+            case BFS:
+                return new VertexReordering(graph, breadthFirst(graph, false));
+            case RCM:
+                return new VertexReordering(graph, reverse(breadthFirst(graph, true)));
+            case TOPOLOGICAL:
+                return new VertexReordering(graph, topological(graph));
+            case DEGREE:
+                return new VertexReordering(graph, reverse(ascendingDegree(graph)));
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+    }
+
+    /**
+     * Uses a caller-supplied order: {@code originalIds[i]} becomes vertex i.
+     */
+    public static VertexReordering of(Graph graph, int[] originalIds) {
+        return new VertexReordering(graph, originalIds.clone());
+    }
+
+    /**
+     * The relabelled graph; weights and the order of each vertex's out-edges are preserved.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public int toReordered(int original) {
+        return reorderedId[original];
+    }
+
+    public int toOriginal(int reordered) {
+        return originalId[reordered];
+    }
+
+    /**
+     * Moves per-vertex values of the relabelled graph to the original vertex ids.
+     */
+    public int[] toOriginalValues(int[] values) {
+        int[] mapped = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[originalId[i]] = values[i];
+        }
+        return mapped;
+    }
+
+    /**
+     * Translates vertex ids, leaving -1 (no vertex) as it is.
+     */
+    public int[] toOriginalIds(int[] ids) {
+        int[] mapped = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            mapped[i] = ids[i] < 0 ? ids[i] : originalId[ids[i]];
+        }
+        return mapped;
+    }
+
+    public List<Integer> toOriginalIds(List<Integer> ids) {
+        List<Integer> mapped = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            mapped.add(originalId[id]);
+        }
+        return mapped;
+    }
+
+    public SCCFinder.SCCResult toOriginal(SCCFinder.SCCResult result) {
+        return new SCCFinder.SCCResult(toOriginalValues(result.getComponentOf()), result.getComponentOffsets(),
+                toOriginalIds(result.getComponentVertices()), result.isReverseTopological(),
+                result.getOperations(), result.getTimeNanos());
+    }
+
+    public TopologicalSort.TopoResult toOriginal(TopologicalSort.TopoResult result) {
+        return new TopologicalSort.TopoResult(toOriginalIds(result.getOrderArray()), result.getOperations(),
+                result.getTimeNanos());
+    }
+
+    public DAGShortestPath.ShortestPathResult toOriginal(DAGShortestPath.ShortestPathResult result) {
+        // Predecessors are both indexed by and holding vertex ids
+        return new DAGShortestPath.ShortestPathResult(toOriginalValues(result.getDistances()),
+                toOriginalValues(toOriginalIds(result.getPredecessors())), result.getOperations(),
+                result.getTimeNanos());
+    }
+
+    public DAGShortestPath.CriticalPathResult toOriginal(DAGShortestPath.CriticalPathResult result) {
+        return new DAGShortestPath.CriticalPathResult(toOriginalIds(result.getPath()), result.getLength(),
+                toOriginalValues(result.getEarliestStart()), toOriginalValues(result.getEarliestFinish()),
+                toOriginalValues(result.getLatestStart()), toOriginalValues(result.getLatestFinish()),
+                toOriginalValues(result.getSlack()), result.getOperations(), result.getTimeNanos());
+    }
+
+    private Graph relabel(Graph original) {
+        int n = original.getVerticesCount();
+        int count = original.getEdgesCount();
+        int[] from = new int[count];
+        int[] to = new int[count];
+        int[] weight = new int[count];
+        int e = 0;
+        // Emitted by ascending new source, so the forward rows are already in place for the counting sort
+        for (int i = 0; i < n; i++) {
+            int u = originalId[i];
+            for (int f = original.getEdgeStart(u); f < original.getEdgeEnd(u); f++) {
+                from[e] = i;
+                to[e] = reorderedId[original.getEdgeTarget(f)];
+                weight[e] = original.getEdgeWeight(f);
+                e++;
+            }
+        }
+        return Graph.fromEdgeArrays(n, from, to, weight, count);
+    }
+
+    // Every unvisited vertex starts a new search, so disconnected parts and isolated vertices are included.
+    // With byDegree the roots and each vertex's neighbours are taken by ascending total degree (Cuthill-McKee).
+    private static int[] breadthFirst(Graph graph, boolean byDegree) {
+        int n = graph.getVerticesCount();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] roots = byDegree ? ascendingDegree(graph) : null;
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) {
+            degree[v] = graph.getOutDegree(v) + graph.getInDegree(v);
+        }
+        int tail = 0;
+        for (int r = 0; r < n; r++) {
+            int root = byDegree ? roots[r] : r;
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            order[tail++] = root;
+            for (int head = tail - 1; head < tail; head++) {
+                int u = order[head];
+                int first = tail;
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    int v = graph.getEdgeTarget(e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+                for (int e = graph.getReverseEdgeStart(u); e < graph.getReverseEdgeEnd(u); e++) {
+                    int v = graph.getReverseEdgeSource(e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+                if (byDegree) {
+                    sortByDegree(order, first, tail, degree);
+                }
+            }
+        }
+        return order;
+    }
+
+    // The run is one vertex's newly found neighbours. Most are short and take an insertion sort, but a hub's
+    // run can hold a large share of the graph, so longer runs sort (degree, position in run) packed into longs.
+    // Ties keep discovery order either way.
+    private static void sortByDegree(int[] order, int from, int to, int[] degree) {
+        if (to - from > INSERTION_SORT_MAX) {
+            long[] keys = new long[to - from];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (long) degree[order[from + i]] << 32 | i;
+            }
+            Arrays.sort(keys);
+            int[] run = Arrays.copyOfRange(order, from, to);
+            for (int i = 0; i < keys.length; i++) {
+                order[from + i] = run[(int) keys[i]];
+            }
+            return;
+        }
+        for (int i = from + 1; i < to; i++) {
+            int v = order[i];
+            int j = i - 1;
+            while (j >= from && degree[order[j]] > degree[v]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = v;
+        }
+    }
+
+    private static int[] topological(Graph graph) {
+        SCCFinder.SCCResult sccs = new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs();
+        int[] offsets = sccs.getComponentOffsets();
+        int[] members = sccs.getComponentVertices();
+        int[] order = new int[graph.getVerticesCount()];
+        int filled = 0;
+        for (int c : sccs.getTopologicalOrderArray()) {
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                order[filled++] = members[i];
+            }
+        }
+        return order;
+    }
+
+    private static int[] reverse(int[] order) {
+        for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    // Counting sort on total degree, ties by vertex id
+    private static int[] ascendingDegree(Graph graph) {
+        int n = graph.getVerticesCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, graph.getOutDegree(v) + graph.getInDegree(v));
+        }
+        int[] start = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            start[graph.getOutDegree(v) + graph.getInDegree(v) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            start[d + 1] += start[d];
+        }
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[start[graph.getOutDegree(v) + graph.getInDegree(v)]++] = v;
+        }
+        return order;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package graph.scc;
+
+import graph.common.BaseMetrics;
+import graph.common.CompressedGraph;
+import java.util.Arrays;
+
+/**
+ * Iterative Tarjan over a {@link CompressedGraph}. A suspended vertex keeps its byte position in the encoded
+ * row and the last target it read instead of an edge id, so the search decodes every row exactly once.
+ * Finds the same partition as {@link SCCFinder} with {@link SCCFinder.Algorithm#TARJAN}, components again in
+ * reverse topological order.
+ */
+public class CompressedSCC extends BaseMetrics {
+    private final CompressedGraph graph;
+
+    public CompressedSCC(CompressedGraph graph) {
+        this.graph = graph;
+    }
+
+    public SCCFinder.SCCResult findSCCs() {
+        reset();
+        long phase = startPhase();
+        int n = graph.getVerticesCount();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] rowPos = new int[n];
+        int[] lastTarget = new int[n];
+        int[] callStack = new int[n];
+        int[] stack = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int sp = 0;
+        int[] componentOf = new int[n];
+        int[] members = new int[n];
+        int[] offsets = new int[n + 1];
+        int componentCount = 0;
+        int filled = 0;
+        CompressedGraph.EdgeCursor cursor = graph.cursor();
+
+        for (int root = 0; root < n; root++) {
+            incrementOperationCount();
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int csp = 0;
+            callStack[csp++] = root;
+            index[root] = low[root] = counter++;
+            cursor.reset(root);
+            rowPos[root] = cursor.getPosition();
+            stack[sp++] = root;
+            onStack[root] = true;
+
+            while (csp > 0) {
+                int u = callStack[csp - 1];
+                cursor.resume(u, rowPos[u], lastTarget[u]);
+                if (cursor.next()) {
+                    int v = cursor.target();
+                    rowPos[u] = cursor.getPosition();
+                    lastTarget[u] = v;
+                    if (index[v] == -1) {
+                        index[v] = low[v] = counter++;
+                        cursor.reset(v);
+                        rowPos[v] = cursor.getPosition();
+                        stack[sp++] = v;
+                        onStack[v] = true;
+                        callStack[csp++] = v;
+                    } else if (onStack[v] && index[v] < low[u]) {
+                        low[u] = index[v];
+                    }
+                    incrementOperationCount();
+                    continue;
+                }
+
+                csp--;
+                if (csp > 0) {
+                    int parent = callStack[csp - 1];
+                    if (low[u] < low[parent]) {
+                        low[parent] = low[u];
+                    }
+                }
+
+                if (low[u] == index[u]) {
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        onStack[w] = false;
+                        componentOf[w] = componentCount;
+                        members[filled++] = w;
+                        incrementOperationCount();
+                    } while (w != u);
+                    offsets[++componentCount] = filled;
+                }
+            }
+        }
+
+        endPhase(Phase.DFS_FIRST_PASS, phase);
+        return new SCCFinder.SCCResult(componentOf, Arrays.copyOf(offsets, componentCount + 1), members, true,
+                getOperationCount(), getTimeNanos());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,572 @@
+package graph.scc;
+
+import graph.common.BaseMetrics;
+import graph.common.Graph;
+import graph.common.IntList;
+import java.util.*;
+
+/**
+ * Strongly connected components maintained under edge insertions and deletions.
+ * The components are kept in a topological order of the condensation, repaired Pearce-Kelly style
+ * as in {@link graph.topo.DynamicTopologicalSort}: an insertion between components that agrees with
+ * the order costs O(1), and otherwise only components whose position lies between the head's and the
+ * tail's are searched. Those reached from the head and reaching the tail close a cycle with the new
+ * edge and are merged; the rest are shuffled among their own positions.
+ * A deletion inside a component only marks it dirty; it is re-split with Tarjan restricted to its
+ * own members the next time the components are read or another edge is inserted.
+ * Operation counts are reset per update, like the other algorithms.
+ */
+public class DynamicSCC extends BaseMetrics {
+    private final int vertices;
+    private final IntList[] out;
+    private final IntList[] outWeights;
+    private final IntList[] in;
+    private final int[] componentId;
+    private final List<IntList> members = new ArrayList<>();
+    private final List<Map<Integer, Integer>> componentOut = new ArrayList<>();
+    private final List<Map<Integer, Integer>> componentIn = new ArrayList<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private final Set<Integer> dirty = new LinkedHashSet<>();
+    private int componentCount;
+
+    // Tarjan scratch for splitting, indexed by vertex
+    private final int[] index;
+    private final int[] low;
+    private final int[] edgePos;
+    private final boolean[] onStack;
+
+    // Topological order of the components, indexed by component id; free ids keep a slot but have no edges
+    private final int[] position;
+    private final int[] componentAt;
+    private final boolean[] reached;
+    private final boolean[] reaching;
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+    private final IntList stack = new IntList();
+
+    public DynamicSCC(int vertices) {
+        this.vertices = vertices;
+        this.out = new IntList[vertices];
+        this.outWeights = new IntList[vertices];
+        this.in = new IntList[vertices];
+        this.componentId = new int[vertices];
+        this.index = new int[vertices];
+        this.low = new int[vertices];
+        this.edgePos = new int[vertices];
+        this.onStack = new boolean[vertices];
+        this.position = new int[vertices];
+        this.componentAt = new int[vertices];
+        this.reached = new boolean[vertices];
+        this.reaching = new boolean[vertices];
+        for (int v = 0; v < vertices; v++) {
+            out[v] = new IntList();
+            outWeights[v] = new IntList();
+            in[v] = new IntList();
+            int c = newComponent();
+            members.get(c).add(v);
+            componentId[v] = c;
+            place(c, c);
+        }
+    }
+
+    public DynamicSCC(Graph graph) {
+        this.vertices = graph.getVerticesCount();
+        this.out = new IntList[vertices];
+        this.outWeights = new IntList[vertices];
+        this.in = new IntList[vertices];
+        this.componentId = new int[vertices];
+        this.index = new int[vertices];
+        this.low = new int[vertices];
+        this.edgePos = new int[vertices];
+        this.onStack = new boolean[vertices];
+        this.position = new int[vertices];
+        this.componentAt = new int[vertices];
+        this.reached = new boolean[vertices];
+        this.reaching = new boolean[vertices];
+        for (int v = 0; v < vertices; v++) {
+            out[v] = new IntList(graph.getOutDegree(v));
+            outWeights[v] = new IntList(graph.getOutDegree(v));
+            in[v] = new IntList(graph.getInDegree(v));
+        }
+        for (int u = 0; u < vertices; u++) {
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                out[u].add(graph.getEdgeTarget(e));
+                outWeights[u].add(graph.getEdgeWeight(e));
+                in[graph.getEdgeTarget(e)].add(u);
+            }
+        }
+
+        SCCFinder.SCCResult sccs = new SCCFinder(graph, SCCFinder.Algorithm.TARJAN).findSCCs();
+        for (List<Integer> scc : sccs.getComponents()) {
+            int c = newComponent();
+            for (int v : scc) {
+                members.get(c).add(v);
+                componentId[v] = c;
+            }
+        }
+        // Components take the first slots in topological order, ids not handed out yet the rest
+        int[] topological = sccs.getTopologicalOrderArray();
+        for (int i = 0; i < topological.length; i++) {
+            place(topological[i], i);
+        }
+        for (int c = topological.length; c < vertices; c++) {
+            place(c, c);
+        }
+        for (int u = 0; u < vertices; u++) {
+            for (int i = 0; i < out[u].size(); i++) {
+                int cv = componentId[out[u].get(i)];
+                if (cv != componentId[u]) {
+                    link(componentId[u], cv, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts u->v with weight 1.
+     */
+    public void addEdge(int u, int v) {
+        addEdge(u, v, 1);
+    }
+
+    public void addEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        reset();
+        refresh();
+
+        out[u].add(v);
+        outWeights[u].add(weight);
+        in[v].add(u);
+        int cu = componentId[u];
+        int cv = componentId[v];
+        if (cu == cv) {
+            return;
+        }
+
+        boolean existed = componentOut.get(cu).containsKey(cv);
+        link(cu, cv, 1);
+        if (existed || position[cu] < position[cv]) {
+            return;
+        }
+
+        IntList cycle = reorder(cu, cv);
+        if (cycle.size() > 0) {
+            merge(cycle);
+        }
+    }
+
+    /**
+     * Removes one copy of edge u->v. Returns false if the edge does not exist.
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        reset();
+
+        int position = out[u].indexOf(v);
+        if (position == -1) {
+            return false;
+        }
+        out[u].swapRemove(position);
+        outWeights[u].swapRemove(position);
+        in[v].swapRemove(in[v].indexOf(u));
+        incrementOperationCount(out[u].size() + in[v].size());
+
+        int cu = componentId[u];
+        int cv = componentId[v];
+        if (cu != cv) {
+            unlink(cu, cv);
+        } else if (u != v) {
+            dirty.add(cu);
+        }
+        return true;
+    }
+
+    public int getComponentId(int vertex) {
+        refresh();
+        return componentId[vertex];
+    }
+
+    public int getComponentCount() {
+        refresh();
+        return componentCount;
+    }
+
+    /**
+     * Live components in ascending id order; position i in this list is vertex i of {@link #getCondensationGraph()}.
+     */
+    public List<List<Integer>> getComponents() {
+        refresh();
+        List<List<Integer>> sccs = new ArrayList<>(componentCount);
+        for (IntList group : members) {
+            if (group != null) {
+                List<Integer> scc = new ArrayList<>(group.size());
+                for (int i = 0; i < group.size(); i++) {
+                    scc.add(group.get(i));
+                }
+                sccs.add(scc);
+            }
+        }
+        return sccs;
+    }
+
+    /**
+     * Condensation graph with the lightest edge kept for every component pair.
+     */
+    public Graph getCondensationGraph() {
+        return condense(SCCFinder.WeightAggregation.MIN).getGraph();
+    }
+
+    /**
+     * Condensation of the current graph, vertex i being component i of {@link #getComponents()}, with parallel
+     * edges between two components merged as in {@link SCCFinder#condense(int[], int, SCCFinder.WeightAggregation)}.
+     */
+    public SCCFinder.CondensationResult condense(SCCFinder.WeightAggregation aggregation) {
+        refresh();
+        int[] dense = new int[members.size()];
+        int next = 0;
+        for (int c = 0; c < members.size(); c++) {
+            dense[c] = members.get(c) != null ? next++ : -1;
+        }
+        int[] componentOf = new int[vertices];
+        int edges = 0;
+        for (int v = 0; v < vertices; v++) {
+            componentOf[v] = dense[componentId[v]];
+            edges += out[v].size();
+        }
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        int[] weight = new int[edges];
+        int k = 0;
+        for (int u = 0; u < vertices; u++) {
+            for (int i = 0; i < out[u].size(); i++) {
+                from[k] = u;
+                to[k] = out[u].get(i);
+                weight[k++] = outWeights[u].get(i);
+            }
+        }
+        Graph snapshot = Graph.fromEdgeArrays(vertices, from, to, weight, edges);
+        return new SCCFinder(snapshot, SCCFinder.Algorithm.TARJAN).condense(componentOf, componentCount, aggregation);
+    }
+
+    // Repairs the order after cu->cv was linked against it. Components between cv and cu that are reached
+    // from cv are moved after those that reach cu, and the ones that are both, which lie on a cycle with
+    // the new edge, in between; returns the latter in their old order, empty if there is no cycle
+    private IntList reorder(int cu, int cv) {
+        int lower = position[cv];
+        int upper = position[cu];
+        forward.clear();
+        backward.clear();
+        search(cv, upper, reached, forward, componentOut, false);
+        search(cu, lower, reaching, backward, componentIn, true);
+
+        IntList before = new IntList();
+        IntList cycle = new IntList();
+        IntList after = new IntList();
+        for (int i = 0; i < backward.size(); i++) {
+            int c = backward.get(i);
+            if (reached[c]) {
+                cycle.add(c);
+            } else {
+                before.add(c);
+            }
+        }
+        for (int i = 0; i < forward.size(); i++) {
+            int c = forward.get(i);
+            if (!reaching[c]) {
+                after.add(c);
+            }
+        }
+        int[][] groups = {sortByPosition(before), sortByPosition(cycle), sortByPosition(after)};
+        int[] slots = new int[before.size() + cycle.size() + after.size()];
+        int k = 0;
+        for (int[] group : groups) {
+            for (int c : group) {
+                slots[k++] = position[c];
+            }
+        }
+        Arrays.sort(slots);
+        k = 0;
+        for (int[] group : groups) {
+            for (int c : group) {
+                place(c, slots[k++]);
+            }
+        }
+        incrementOperationCount(slots.length);
+
+        for (int i = 0; i < forward.size(); i++) {
+            reached[forward.get(i)] = false;
+        }
+        for (int i = 0; i < backward.size(); i++) {
+            reaching[backward.get(i)] = false;
+        }
+        return cycle;
+    }
+
+    // Marks the components reachable from start along edges (or against them) whose position stays within bound
+    private void search(int start, int bound, boolean[] marks, IntList found, List<Map<Integer, Integer>> edges,
+                        boolean backwards) {
+        stack.clear();
+        stack.add(start);
+        marks[start] = true;
+        found.add(start);
+        while (!stack.isEmpty()) {
+            int c = stack.swapRemove(stack.size() - 1);
+            for (int d : edges.get(c).keySet()) {
+                incrementOperationCount();
+                if (!marks[d] && (backwards ? position[d] >= bound : position[d] <= bound)) {
+                    marks[d] = true;
+                    found.add(d);
+                    stack.add(d);
+                }
+            }
+        }
+    }
+
+    private int[] sortByPosition(IntList group) {
+        int[] keys = new int[group.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = position[group.get(i)];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = componentAt[keys[i]];
+        }
+        return keys;
+    }
+
+    private void place(int component, int slot) {
+        position[component] = slot;
+        componentAt[slot] = component;
+    }
+
+    private void merge(IntList cycle) {
+        int target = cycle.get(0);
+        Set<Integer> merged = new HashSet<>();
+        for (int i = 0; i < cycle.size(); i++) {
+            int c = cycle.get(i);
+            merged.add(c);
+            if (members.get(c).size() > members.get(target).size()) {
+                target = c;
+            }
+        }
+
+        for (int c : merged) {
+            if (c == target) {
+                continue;
+            }
+            IntList group = members.get(c);
+            for (int i = 0; i < group.size(); i++) {
+                componentId[group.get(i)] = target;
+                incrementOperationCount();
+            }
+            members.get(target).addAll(group);
+
+            for (Map.Entry<Integer, Integer> edge : componentOut.get(c).entrySet()) {
+                int d = edge.getKey();
+                if (!merged.contains(d)) {
+                    componentIn.get(d).remove(c);
+                    link(target, d, edge.getValue());
+                }
+                incrementOperationCount();
+            }
+            for (Map.Entry<Integer, Integer> edge : componentIn.get(c).entrySet()) {
+                int d = edge.getKey();
+                if (!merged.contains(d)) {
+                    componentOut.get(d).remove(c);
+                    link(d, target, edge.getValue());
+                }
+                incrementOperationCount();
+            }
+            freeComponent(c);
+        }
+
+        componentOut.get(target).keySet().removeAll(merged);
+        componentIn.get(target).keySet().removeAll(merged);
+    }
+
+    private void refresh() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        for (int c : dirty) {
+            if (members.get(c) != null) {
+                split(c);
+            }
+        }
+        dirty.clear();
+    }
+
+    private void split(int c) {
+        int[] group = members.get(c).toArray();
+        List<IntList> parts = tarjan(group, c);
+        if (parts.size() == 1) {
+            return;
+        }
+
+        for (int d : componentOut.get(c).keySet()) {
+            componentIn.get(d).remove(c);
+        }
+        for (int d : componentIn.get(c).keySet()) {
+            componentOut.get(d).remove(c);
+        }
+        componentOut.get(c).clear();
+        componentIn.get(c).clear();
+
+        Set<Integer> parted = new HashSet<>();
+        int[] ids = new int[parts.size()];
+        int[] slots = new int[parts.size()];
+        for (int p = 0; p < parts.size(); p++) {
+            int id = p == 0 ? c : newComponent();
+            IntList part = parts.get(p);
+            members.set(id, part);
+            for (int i = 0; i < part.size(); i++) {
+                componentId[part.get(i)] = id;
+            }
+            parted.add(id);
+            ids[p] = id;
+            slots[p] = position[id];
+        }
+        // Tarjan emits the parts sinks first, so the last part takes the earliest of their slots
+        Arrays.sort(slots);
+        for (int p = 0; p < ids.length; p++) {
+            place(ids[p], slots[ids.length - 1 - p]);
+        }
+
+        for (int x : group) {
+            for (int i = 0; i < out[x].size(); i++) {
+                int cy = componentId[out[x].get(i)];
+                if (cy != componentId[x]) {
+                    connect(componentId[x], cy);
+                }
+                incrementOperationCount();
+            }
+            for (int i = 0; i < in[x].size(); i++) {
+                int cw = componentId[in[x].get(i)];
+                if (!parted.contains(cw)) {
+                    connect(cw, componentId[x]);
+                }
+                incrementOperationCount();
+            }
+        }
+    }
+
+    // Relinks a pair after a split; parts reused free slots, so a new pair may point against the order
+    private void connect(int from, int to) {
+        boolean existed = componentOut.get(from).containsKey(to);
+        link(from, to, 1);
+        if (!existed && position[from] > position[to]) {
+            reorder(from, to);
+        }
+    }
+
+    // Iterative Tarjan over the vertices of component c, ignoring edges that leave it
+    private List<IntList> tarjan(int[] group, int c) {
+        for (int x : group) {
+            index[x] = -1;
+        }
+        int[] callStack = new int[group.length];
+        int[] stack = new int[group.length];
+        int sp = 0;
+        int counter = 0;
+        List<IntList> parts = new ArrayList<>();
+
+        for (int root : group) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int csp = 0;
+            callStack[csp++] = root;
+            index[root] = low[root] = counter++;
+            edgePos[root] = 0;
+            stack[sp++] = root;
+            onStack[root] = true;
+
+            while (csp > 0) {
+                int u = callStack[csp - 1];
+                if (edgePos[u] < out[u].size()) {
+                    int v = out[u].get(edgePos[u]++);
+                    incrementOperationCount();
+                    if (componentId[v] != c) {
+                        continue;
+                    }
+                    if (index[v] == -1) {
+                        index[v] = low[v] = counter++;
+                        edgePos[v] = 0;
+                        stack[sp++] = v;
+                        onStack[v] = true;
+                        callStack[csp++] = v;
+                    } else if (onStack[v] && index[v] < low[u]) {
+                        low[u] = index[v];
+                    }
+                    continue;
+                }
+
+                csp--;
+                if (csp > 0) {
+                    int parent = callStack[csp - 1];
+                    if (low[u] < low[parent]) {
+                        low[parent] = low[u];
+                    }
+                }
+                if (low[u] == index[u]) {
+                    IntList part = new IntList();
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        onStack[w] = false;
+                        part.add(w);
+                    } while (w != u);
+                    parts.add(part);
+                }
+            }
+        }
+        return parts;
+    }
+
+    private void link(int from, int to, int count) {
+        componentOut.get(from).merge(to, count, Integer::sum);
+        componentIn.get(to).merge(from, count, Integer::sum);
+    }
+
+    private void unlink(int from, int to) {
+        if (componentOut.get(from).merge(to, -1, Integer::sum) == 0) {
+            componentOut.get(from).remove(to);
+        }
+        if (componentIn.get(to).merge(from, -1, Integer::sum) == 0) {
+            componentIn.get(to).remove(from);
+        }
+    }
+
+    private int newComponent() {
+        int id;
+        if (freeIds.isEmpty()) {
+            id = members.size();
+            members.add(new IntList(1));
+            componentOut.add(new HashMap<>());
+            componentIn.add(new HashMap<>());
+        } else {
+            id = freeIds.pop();
+            members.set(id, new IntList(1));
+            componentOut.set(id, new HashMap<>());
+            componentIn.set(id, new HashMap<>());
+        }
+        componentCount++;
+        return id;
+    }
+
+    private void freeComponent(int id) {
+        members.set(id, null);
+        componentOut.set(id, null);
+        componentIn.set(id, null);
+        freeIds.push(id);
+        componentCount--;
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertices) {
+            throw new IndexOutOfBoundsException("Vertex " + vertex + " outside [0, " + vertices + ")");
+        }
+    }
+}
\ No newline at end of file
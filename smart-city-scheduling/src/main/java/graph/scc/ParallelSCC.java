@@ -0,0 +1,425 @@
+package graph.scc;
+
+import graph.common.Graph;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Forward-backward SCC decomposition on a fork/join pool.
+ * Trivial SCCs (no live predecessors or successors) are trimmed level by level first,
+ * then each remaining colour class is split by a pivot's forward and backward reachable sets
+ * into the pivot's SCC and three independent subproblems; the smaller two are forked and the largest
+ * is split again by the same task, so fork depth stays logarithmic and each level only keeps arrays
+ * sized to what it holds. Subproblems below the sequential threshold, and any class a split barely
+ * shrinks, are finished with a colour-restricted iterative Tarjan.
+ */
+class ParallelSCC {
+    private static final int DONE = -1;
+    private static final int PEEL_CHUNK = 2048;
+    // A split that removes no more than 1/STALL_FRACTION of its class hands the rest to Tarjan
+    private static final int STALL_FRACTION = 64;
+
+    private final Graph graph;
+    private final int sequentialThreshold;
+    private final int[] componentId;
+    private final int[] color;
+    private final AtomicInteger nextComponent = new AtomicInteger();
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+    private final LongAdder operations = new LongAdder();
+
+    // Tarjan scratch, each vertex is only touched by the task that owns its colour
+    private final int[] index;
+    private final int[] low;
+    private final int[] edgePos;
+    private final boolean[] onStack;
+
+    ParallelSCC(Graph graph, int sequentialThreshold) {
+        int n = graph.getVerticesCount();
+        this.graph = graph;
+        this.sequentialThreshold = Math.max(1, sequentialThreshold);
+        this.componentId = new int[n];
+        this.color = new int[n];
+        this.index = new int[n];
+        this.low = new int[n];
+        this.edgePos = new int[n];
+        this.onStack = new boolean[n];
+        Arrays.fill(componentId, -1);
+    }
+
+    /**
+     * Returns the components in topological order of the condensation graph,
+     * with the vertices of each component in ascending order.
+     */
+    List<List<Integer>> run(ForkJoinPool pool) {
+        int n = graph.getVerticesCount();
+        int[] remaining = pool.invoke(new TrimTask());
+        pool.invoke(new SplitTask(remaining, 0));
+        return orderComponents(n, nextComponent.get());
+    }
+
+    long getOperations() {
+        return operations.sum();
+    }
+
+    private boolean live(int vertex, int c) {
+        return color[vertex] == c;
+    }
+
+    private void assign(int vertex) {
+        componentId[vertex] = nextComponent.getAndIncrement();
+        color[vertex] = DONE;
+    }
+
+    // Repeatedly peels off vertices whose live in- or out-degree is zero; returns the survivors
+    private class TrimTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected int[] compute() {
+            int n = graph.getVerticesCount();
+            AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+            AtomicIntegerArray outDegree = new AtomicIntegerArray(n);
+            AtomicIntegerArray trimmed = new AtomicIntegerArray(n);
+            int[] frontier = new int[n];
+            int size = 0;
+            for (int v = 0; v < n; v++) {
+                inDegree.set(v, graph.getInDegree(v));
+                outDegree.set(v, graph.getOutDegree(v));
+                if (graph.getInDegree(v) == 0 || graph.getOutDegree(v) == 0) {
+                    trimmed.set(v, 1);
+                    frontier[size++] = v;
+                }
+            }
+
+            int[] next = new int[n];
+            while (size > 0) {
+                AtomicInteger nextSize = new AtomicInteger();
+                new PeelTask(frontier, 0, size, next, nextSize, inDegree, outDegree, trimmed).invoke();
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                size = nextSize.get();
+            }
+
+            int[] remaining = new int[n];
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                if (trimmed.get(v) == 0) {
+                    remaining[count++] = v;
+                }
+            }
+            return Arrays.copyOf(remaining, count);
+        }
+    }
+
+    private class PeelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final int[] next;
+        private final AtomicInteger nextSize;
+        private final AtomicIntegerArray inDegree;
+        private final AtomicIntegerArray outDegree;
+        private final AtomicIntegerArray trimmed;
+
+        PeelTask(int[] frontier, int from, int to, int[] next, AtomicInteger nextSize,
+                 AtomicIntegerArray inDegree, AtomicIntegerArray outDegree, AtomicIntegerArray trimmed) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.next = next;
+            this.nextSize = nextSize;
+            this.inDegree = inDegree;
+            this.outDegree = outDegree;
+            this.trimmed = trimmed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PEEL_CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PeelTask(frontier, from, mid, next, nextSize, inDegree, outDegree, trimmed),
+                        new PeelTask(frontier, mid, to, next, nextSize, inDegree, outDegree, trimmed));
+                return;
+            }
+            long ops = 0;
+            for (int i = from; i < to; i++) {
+                int v = frontier[i];
+                assign(v);
+                for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+                    int w = graph.getEdgeTarget(e);
+                    if (inDegree.decrementAndGet(w) == 0 && trimmed.compareAndSet(w, 0, 1)) {
+                        next[nextSize.getAndIncrement()] = w;
+                    }
+                }
+                for (int e = graph.getReverseEdgeStart(v); e < graph.getReverseEdgeEnd(v); e++) {
+                    int u = graph.getReverseEdgeSource(e);
+                    if (outDegree.decrementAndGet(u) == 0 && trimmed.compareAndSet(u, 0, 1)) {
+                        next[nextSize.getAndIncrement()] = u;
+                    }
+                }
+                ops += graph.getOutDegree(v) + graph.getInDegree(v) + 1;
+            }
+            operations.add(ops);
+        }
+    }
+
+    // Splits its colour class and forks the smaller pieces; the largest piece stays on this task in a loop
+    private class SplitTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int[] vertices;
+        private final int c;
+
+        SplitTask(int[] vertices, int c) {
+            this.vertices = vertices;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            // Dropped from the field so each superseded class can be collected while the loop continues
+            int[] members = vertices;
+            vertices = null;
+            int classColor = c;
+            List<SplitTask> forked = new ArrayList<>();
+            while (members.length > 0) {
+                int size = members.length;
+                if (size <= sequentialThreshold) {
+                    tarjan(members, size, classColor);
+                    break;
+                }
+                int[][] pieces = new int[3][];
+                int[] colors = new int[3];
+                split(members, classColor, pieces, colors);
+
+                int largest = 0;
+                for (int i = 1; i < 3; i++) {
+                    if (pieces[i].length > pieces[largest].length) {
+                        largest = i;
+                    }
+                }
+                for (int i = 0; i < 3; i++) {
+                    if (i != largest && pieces[i].length > 0) {
+                        SplitTask task = new SplitTask(pieces[i], colors[i]);
+                        task.fork();
+                        forked.add(task);
+                    }
+                }
+                members = pieces[largest];
+                classColor = colors[largest];
+                // A pivot that only peels off a sliver (e.g. a chain of small cycles) would make the loop
+                // quadratic, so a class that barely shrank is finished sequentially instead
+                if (size - members.length <= size / STALL_FRACTION) {
+                    tarjan(members, members.length, classColor);
+                    break;
+                }
+            }
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
+        }
+
+        // Labels the pivot's SCC and fills pieces/colors with the forward-only, backward-only and unreached sets
+        private void split(int[] members, int c, int[][] pieces, int[] colors) {
+            int size = members.length;
+            int pivot = members[0];
+            int fwColor = nextColor.getAndIncrement();
+            int bwColor = nextColor.getAndIncrement();
+
+            // Forward closure from the pivot inside colour c
+            int[] fw = new int[size];
+            int fwSize = 0;
+            color[pivot] = fwColor;
+            fw[fwSize++] = pivot;
+            for (int head = 0; head < fwSize; head++) {
+                int u = fw[head];
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    int v = graph.getEdgeTarget(e);
+                    if (live(v, c)) {
+                        color[v] = fwColor;
+                        fw[fwSize++] = v;
+                    }
+                }
+            }
+
+            // Backward closure: forward-reached vertices are the pivot's SCC, the rest become bwColor
+            int[] queue = new int[size];
+            int queueSize = 0;
+            int bwSize = 0;
+            assign(pivot);
+            queue[queueSize++] = pivot;
+            for (int head = 0; head < queueSize; head++) {
+                int v = queue[head];
+                for (int e = graph.getReverseEdgeStart(v); e < graph.getReverseEdgeEnd(v); e++) {
+                    int u = graph.getReverseEdgeSource(e);
+                    if (live(u, fwColor)) {
+                        componentId[u] = componentId[pivot];
+                        color[u] = DONE;
+                        queue[queueSize++] = u;
+                    } else if (live(u, c)) {
+                        color[u] = bwColor;
+                        bwSize++;
+                        queue[queueSize++] = u;
+                    }
+                }
+            }
+
+            int[] bw = new int[bwSize];
+            bwSize = 0;
+            for (int i = 1; i < queueSize; i++) {
+                if (color[queue[i]] == bwColor) {
+                    bw[bwSize++] = queue[i];
+                }
+            }
+            int fwOnly = 0;
+            for (int i = 0; i < fwSize; i++) {
+                if (color[fw[i]] == fwColor) {
+                    fw[fwOnly++] = fw[i];
+                }
+            }
+            int[] rest = new int[size - fwSize - bwSize];
+            int restSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (color[members[i]] == c) {
+                    rest[restSize++] = members[i];
+                }
+            }
+            operations.add(fwSize + queueSize + size);
+
+            pieces[0] = Arrays.copyOf(fw, fwOnly);
+            pieces[1] = bw;
+            pieces[2] = rest;
+            colors[0] = fwColor;
+            colors[1] = bwColor;
+            colors[2] = c;
+        }
+    }
+
+    private void tarjan(int[] vertices, int size, int c) {
+        int[] callStack = new int[size];
+        int[] stack = new int[size];
+        int sp = 0;
+        int counter = 0;
+        long ops = 0;
+        for (int i = 0; i < size; i++) {
+            index[vertices[i]] = -1;
+        }
+
+        for (int i = 0; i < size; i++) {
+            int root = vertices[i];
+            if (index[root] != -1) {
+                continue;
+            }
+            int csp = 0;
+            callStack[csp++] = root;
+            index[root] = low[root] = counter++;
+            edgePos[root] = graph.getEdgeStart(root);
+            stack[sp++] = root;
+            onStack[root] = true;
+
+            while (csp > 0) {
+                int u = callStack[csp - 1];
+                if (edgePos[u] < graph.getEdgeEnd(u)) {
+                    int v = graph.getEdgeTarget(edgePos[u]++);
+                    ops++;
+                    if (!live(v, c)) {
+                        continue;
+                    }
+                    if (index[v] == -1) {
+                        index[v] = low[v] = counter++;
+                        edgePos[v] = graph.getEdgeStart(v);
+                        stack[sp++] = v;
+                        onStack[v] = true;
+                        callStack[csp++] = v;
+                    } else if (onStack[v] && index[v] < low[u]) {
+                        low[u] = index[v];
+                    }
+                    continue;
+                }
+
+                csp--;
+                if (csp > 0) {
+                    int parent = callStack[csp - 1];
+                    if (low[u] < low[parent]) {
+                        low[parent] = low[u];
+                    }
+                }
+                if (low[u] == index[u]) {
+                    int id = nextComponent.getAndIncrement();
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        onStack[w] = false;
+                        componentId[w] = id;
+                    } while (w != u);
+                }
+            }
+        }
+
+        // Colours are only cleared once the whole class is labelled so live() stays valid during the DFS
+        for (int i = 0; i < size; i++) {
+            color[vertices[i]] = DONE;
+        }
+        operations.add(ops + size);
+    }
+
+    // Groups vertices by component id and emits components in Kahn order of the condensation
+    private List<List<Integer>> orderComponents(int n, int count) {
+        int[] start = new int[count + 1];
+        for (int v = 0; v < n; v++) {
+            start[componentId[v] + 1]++;
+        }
+        for (int i = 0; i < count; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(start, count);
+        for (int v = 0; v < n; v++) {
+            members[fill[componentId[v]]++] = v;
+        }
+
+        int[] inDegree = new int[count];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                int cv = componentId[graph.getEdgeTarget(e)];
+                if (cv != componentId[u]) {
+                    inDegree[cv]++;
+                }
+            }
+        }
+
+        int[] queue = new int[count];
+        int tail = 0;
+        for (int i = 0; i < count; i++) {
+            if (inDegree[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        List<List<Integer>> sccs = new ArrayList<>(count);
+        for (int head = 0; head < tail; head++) {
+            int comp = queue[head];
+            List<Integer> scc = new ArrayList<>(start[comp + 1] - start[comp]);
+            for (int i = start[comp]; i < start[comp + 1]; i++) {
+                int u = members[i];
+                scc.add(u);
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    int cv = componentId[graph.getEdgeTarget(e)];
+                    if (cv != comp && --inDegree[cv] == 0) {
+                        queue[tail++] = cv;
+                    }
+                }
+            }
+            sccs.add(scc);
+        }
+        operations.add(2L * n + 2L * graph.getEdgesCount());
+        return sccs;
+    }
+}
\ No newline at end of file
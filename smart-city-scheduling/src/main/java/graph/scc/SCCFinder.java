@@ -2,21 +2,68 @@ package graph.scc;
 
 import graph.common.Graph;
 import graph.common.BaseMetrics;
+import graph.common.IntList;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class SCCFinder extends BaseMetrics {
+    /**
+     * KOSARAJU returns components in topological order of the condensation,
+     * TARJAN returns them in reverse topological order and never recurses,
+     * PARALLEL runs forward-backward decomposition on a fork/join pool and returns topological order.
+     */
+    public enum Algorithm { KOSARAJU, TARJAN, PARALLEL }
+
+    /**
+     * How the weights of parallel edges between the same two components are combined.
+     */
+    public enum WeightAggregation { MIN, MAX, SUM }
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
     private Graph graph;
+    private final Algorithm algorithm;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
     private boolean[] visited;
     private Stack<Integer> stack;
 
     public SCCFinder(Graph graph) {
+        this(graph, Algorithm.KOSARAJU);
+    }
+
+    public SCCFinder(Graph graph, Algorithm algorithm) {
         this.graph = graph;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Pool that PARALLEL mode runs on, the common pool by default; null falls back to sequential Tarjan.
+     * The pool is only borrowed and never shut down.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Graphs with fewer vertices plus edges than this run sequential Tarjan in PARALLEL mode;
+     * the same size also bounds the subproblems that are not split any further.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
     }
 
     public SCCResult findSCCs() {
         reset();
+        if (algorithm == Algorithm.TARJAN) {
+            return tarjan();
+        }
+        if (algorithm == Algorithm.PARALLEL) {
+            return parallel();
+        }
 
         // First pass fill stack with finishing times
+        long phase = startPhase();
         visited = new boolean[graph.getVerticesCount()];
         stack = new Stack<>();
 
@@ -27,7 +74,10 @@ public class SCCFinder extends BaseMetrics {
             incrementOperationCount();
         }
 
+        endPhase(Phase.DFS_FIRST_PASS, phase);
+
         // Second pass process in reverse order
+        phase = startPhase();
         visited = new boolean[graph.getVerticesCount()];
         List<List<Integer>> sccs = new ArrayList<>();
 
@@ -40,15 +90,108 @@ public class SCCFinder extends BaseMetrics {
             }
             incrementOperationCount();
         }
+        endPhase(Phase.DFS_SECOND_PASS, phase);
+
+        return new SCCResult(sccs, false, getOperationCount(), getTimeNanos());
+    }
+
+    private SCCResult parallel() {
+        if ((long) graph.getVerticesCount() + graph.getEdgesCount() < parallelThreshold || pool == null
+                || pool.getParallelism() == 1) {
+            return tarjan();
+        }
+
+        ParallelSCC decomposition = new ParallelSCC(graph, parallelThreshold);
+        long phase = startPhase();
+        List<List<Integer>> sccs = decomposition.run(pool);
+        endPhase(Phase.DFS_FIRST_PASS, phase);
+        incrementOperationCount(decomposition.getOperations());
+        return new SCCResult(sccs, false, getOperationCount(), getTimeNanos());
+    }
+
+    // Iterative Tarjan: callStack/edgePos replace the recursion, stack holds the open components
+    private SCCResult tarjan() {
+        long phase = startPhase();
+        int n = graph.getVerticesCount();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] edgePos = new int[n];
+        int[] callStack = new int[n];
+        int[] stack = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int sp = 0;
+        // Components are written straight into primitive arrays: members grouped by component, plus offsets
+        int[] componentOf = new int[n];
+        int[] members = new int[n];
+        int[] offsets = new int[n + 1];
+        int componentCount = 0;
+        int filled = 0;
+
+        for (int root = 0; root < n; root++) {
+            incrementOperationCount();
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int csp = 0;
+            callStack[csp++] = root;
+            index[root] = low[root] = counter++;
+            edgePos[root] = graph.getEdgeStart(root);
+            stack[sp++] = root;
+            onStack[root] = true;
+
+            while (csp > 0) {
+                int u = callStack[csp - 1];
+                if (edgePos[u] < graph.getEdgeEnd(u)) {
+                    int v = graph.getEdgeTarget(edgePos[u]++);
+                    if (index[v] == -1) {
+                        index[v] = low[v] = counter++;
+                        edgePos[v] = graph.getEdgeStart(v);
+                        stack[sp++] = v;
+                        onStack[v] = true;
+                        callStack[csp++] = v;
+                    } else if (onStack[v] && index[v] < low[u]) {
+                        low[u] = index[v];
+                    }
+                    incrementOperationCount();
+                    continue;
+                }
+
+                csp--;
+                if (csp > 0) {
+                    int parent = callStack[csp - 1];
+                    if (low[u] < low[parent]) {
+                        low[parent] = low[u];
+                    }
+                }
+
+                if (low[u] == index[u]) {
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        onStack[w] = false;
+                        componentOf[w] = componentCount;
+                        members[filled++] = w;
+                        incrementOperationCount();
+                    } while (w != u);
+                    offsets[++componentCount] = filled;
+                }
+            }
+        }
 
-        return new SCCResult(sccs, getOperationCount(), getTimeNanos());
+        endPhase(Phase.DFS_FIRST_PASS, phase);
+        return new SCCResult(componentOf, Arrays.copyOf(offsets, componentCount + 1), members, true,
+                getOperationCount(), getTimeNanos());
     }
 
     private void dfsFirstPass(int vertex) {
         visited[vertex] = true;
         incrementOperationCount();
 
-        for (int neighbor : graph.getAdjacent(vertex)) {
+        for (int e = graph.getEdgeStart(vertex); e < graph.getEdgeEnd(vertex); e++) {
+            int neighbor = graph.getEdgeTarget(e);
             if (!visited[neighbor]) {
                 dfsFirstPass(neighbor);
             }
@@ -62,7 +205,8 @@ public class SCCFinder extends BaseMetrics {
         scc.add(vertex);
         incrementOperationCount();
 
-        for (int neighbor : graph.getReverseAdjacent(vertex)) {
+        for (int e = graph.getReverseEdgeStart(vertex); e < graph.getReverseEdgeEnd(vertex); e++) {
+            int neighbor = graph.getReverseEdgeSource(e);
             if (!visited[neighbor]) {
                 dfsSecondPass(neighbor, scc);
             }
@@ -70,54 +214,251 @@ public class SCCFinder extends BaseMetrics {
         }
     }
 
+    /**
+     * Condensation graph with the lightest edge kept for every component pair.
+     */
     public Graph buildCondensationGraph(List<List<Integer>> sccs) {
-        reset();
+        return condense(sccs, WeightAggregation.MIN).getGraph();
+    }
 
-        // Map vertex to its component ID
-        int[] componentId = new int[graph.getVerticesCount()];
+    public CondensationResult condense(SCCResult sccs, WeightAggregation aggregation) {
+        return condense(sccs.getComponentOf(), sccs.getComponentCount(), aggregation);
+    }
+
+    public CondensationResult condense(List<List<Integer>> sccs, WeightAggregation aggregation) {
+        int[] componentOf = new int[graph.getVerticesCount()];
         for (int i = 0; i < sccs.size(); i++) {
             for (int vertex : sccs.get(i)) {
-                componentId[vertex] = i;
-                incrementOperationCount();
+                componentOf[vertex] = i;
             }
         }
+        return condense(componentOf, sccs.size(), aggregation);
+    }
 
-        // Build condensation graph
-        Graph condensation = new Graph(sccs.size());
-        Set<String> edgesAdded = new HashSet<>();
-
-        for (int u = 0; u < graph.getVerticesCount(); u++) {
-            for (int v : graph.getAdjacent(u)) {
-                int compU = componentId[u];
-                int compV = componentId[v];
-                if (compU != compV) {
-                    String edgeKey = compU + "-" + compV;
-                    if (!edgesAdded.contains(edgeKey)) {
-                        // Use minimum weight for condensation edges
-                        condensation.addEdge(compU, compV, 1);
-                        edgesAdded.add(edgeKey);
+    /**
+     * Builds the condensation graph in one pass over the edges, grouped by source component. A component
+     * pair is deduplicated through a per-target marker holding the source component that last wrote it,
+     * so there is no hashing and nothing is allocated per edge. Parallel edges between two components are
+     * merged into one edge whose weight is the {@code aggregation} of theirs.
+     */
+    public CondensationResult condense(int[] componentOf, int componentCount, WeightAggregation aggregation) {
+        reset();
+        long phase = startPhase();
+
+        // Bucket vertices by component
+        int vertices = graph.getVerticesCount();
+        int[] memberStart = new int[componentCount + 1];
+        for (int v = 0; v < vertices; v++) {
+            memberStart[componentOf[v] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberStart[c + 1] += memberStart[c];
+        }
+        int[] members = new int[vertices];
+        int[] fill = Arrays.copyOf(memberStart, componentCount);
+        for (int v = 0; v < vertices; v++) {
+            members[fill[componentOf[v]]++] = v;
+        }
+
+        int[] marker = fill;
+        Arrays.fill(marker, -1);
+        int[] slot = new int[componentCount];
+        int capacity = Math.max(16, Math.min(graph.getEdgesCount(), componentCount * 4));
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        int[] weight = new int[capacity];
+        int count = 0;
+
+        for (int compU = 0; compU < componentCount; compU++) {
+            for (int i = memberStart[compU]; i < memberStart[compU + 1]; i++) {
+                int u = members[i];
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    incrementOperationCount();
+                    int compV = componentOf[graph.getEdgeTarget(e)];
+                    if (compV == compU) {
+                        continue;
+                    }
+                    int w = graph.getEdgeWeight(e);
+                    if (marker[compV] == compU) {
+                        int s = slot[compV];
+                        weight[s] = aggregate(aggregation, weight[s], w);
+                    } else {
+                        if (count == from.length) {
+                            from = Arrays.copyOf(from, count * 2);
+                            to = Arrays.copyOf(to, count * 2);
+                            weight = Arrays.copyOf(weight, count * 2);
+                        }
+                        marker[compV] = compU;
+                        slot[compV] = count;
+                        from[count] = compU;
+                        to[count] = compV;
+                        weight[count] = w;
+                        count++;
                     }
                 }
-                incrementOperationCount();
             }
         }
 
-        return condensation;
+        Graph condensation = Graph.fromEdgeArrays(componentCount, from, to, weight, count);
+        endPhase(Phase.CONDENSATION, phase);
+        return new CondensationResult(condensation, componentOf, getOperationCount(), getTimeNanos());
     }
 
+    private static int aggregate(WeightAggregation aggregation, int current, int weight) {
+        switch (aggregation) {
+            case MIN:
+                return Math.min(current, weight);
+            case MAX:
+                return Math.max(current, weight);
+            default:
+                // Saturate instead of wrapping around on very long sums
+                long sum = (long) current + weight;
+                return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sum));
+        }
+    }
+
+    /**
+     * Condensation graph plus the vertex to component map it was built from.
+     */
+    public static class CondensationResult {
+        private final Graph graph;
+        private final int[] componentOf;
+        private final long operations;
+        private final long timeNanos;
+
+        public CondensationResult(Graph graph, int[] componentOf, long operations, long timeNanos) {
+            this.graph = graph;
+            this.componentOf = componentOf;
+            this.operations = operations;
+            this.timeNanos = timeNanos;
+        }
+
+        public Graph getGraph() { return graph; }
+        public int[] getComponentOf() { return componentOf; }
+        public int getComponentCount() { return graph.getVerticesCount(); }
+        public long getOperations() { return operations; }
+        public long getTimeNanos() { return timeNanos; }
+    }
+
+    /**
+     * Components of one run. TARJAN fills primitive arrays (vertex to component map, members grouped by
+     * component with offsets) and the boxed lists are read-only views over them. The other algorithms fill
+     * lists, and the arrays are derived from them on first use.
+     */
     public static class SCCResult {
-        private final List<List<Integer>> components;
+        private List<List<Integer>> components;
+        private int[] componentOf;
+        private int[] offsets;
+        private int[] members;
+        private final boolean reverseTopological;
         private final long operations;
         private final long timeNanos;
 
         public SCCResult(List<List<Integer>> components, long operations, long timeNanos) {
+            this(components, false, operations, timeNanos);
+        }
+
+        public SCCResult(List<List<Integer>> components, boolean reverseTopological, long operations, long timeNanos) {
             this.components = components;
+            this.reverseTopological = reverseTopological;
             this.operations = operations;
             this.timeNanos = timeNanos;
         }
 
-        public List<List<Integer>> getComponents() { return components; }
+        public SCCResult(int[] componentOf, int[] offsets, int[] members, boolean reverseTopological,
+                         long operations, long timeNanos) {
+            this.componentOf = componentOf;
+            this.offsets = offsets;
+            this.members = members;
+            this.reverseTopological = reverseTopological;
+            this.operations = operations;
+            this.timeNanos = timeNanos;
+        }
+
+        public List<List<Integer>> getComponents() {
+            if (components == null) {
+                List<List<Integer>> views = new ArrayList<>(offsets.length - 1);
+                for (int c = 0; c + 1 < offsets.length; c++) {
+                    views.add(IntList.asList(members, offsets[c], offsets[c + 1]));
+                }
+                components = Collections.unmodifiableList(views);
+            }
+            return components;
+        }
+
+        public int getComponentCount() {
+            return components != null ? components.size() : offsets.length - 1;
+        }
+
+        /**
+         * Component id of every vertex.
+         */
+        public int[] getComponentOf() {
+            if (componentOf == null) {
+                fillArrays();
+            }
+            return componentOf;
+        }
+
+        /**
+         * Members of component c are {@code getComponentVertices()[offsets[c] .. offsets[c + 1])}.
+         */
+        public int[] getComponentOffsets() {
+            if (offsets == null) {
+                fillArrays();
+            }
+            return offsets;
+        }
+
+        public int[] getComponentVertices() {
+            if (members == null) {
+                fillArrays();
+            }
+            return members;
+        }
+
+        public boolean isReverseTopological() { return reverseTopological; }
+
+        /**
+         * Component ids in topological order of the condensation graph, taken from the order
+         * the components were emitted in, so no separate Kahn pass is needed.
+         */
+        public List<Integer> getTopologicalOrder() {
+            int[] order = getTopologicalOrderArray();
+            return IntList.asList(order, 0, order.length);
+        }
+
+        public int[] getTopologicalOrderArray() {
+            int count = getComponentCount();
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = reverseTopological ? count - 1 - i : i;
+            }
+            return order;
+        }
+
         public long getOperations() { return operations; }
         public long getTimeNanos() { return timeNanos; }
+
+        private void fillArrays() {
+            int vertices = 0;
+            for (List<Integer> component : components) {
+                vertices += component.size();
+            }
+            int[] ids = new int[vertices];
+            int[] starts = new int[components.size() + 1];
+            int[] grouped = new int[vertices];
+            int filled = 0;
+            for (int c = 0; c < components.size(); c++) {
+                for (int v : components.get(c)) {
+                    ids[v] = c;
+                    grouped[filled++] = v;
+                }
+                starts[c + 1] = filled;
+            }
+            componentOf = ids;
+            offsets = starts;
+            members = grouped;
+        }
     }
 }
\ No newline at end of file
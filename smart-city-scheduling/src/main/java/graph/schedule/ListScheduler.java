@@ -0,0 +1,232 @@
+package graph.schedule;
+
+import graph.common.BaseMetrics;
+import graph.common.Graph;
+import graph.common.IntHeap;
+import graph.dagsp.DAGShortestPath;
+import graph.scc.SCCFinder;
+
+/**
+ * Resource-constrained list scheduling of a DAG on K identical workers.
+ * Whenever a worker is free, the ready task with the longest path to a sink starts next
+ * (ties go to the lower task id), and the lowest-numbered free worker takes it.
+ * Ready tasks, running tasks and tasks waiting for a lag all sit in primitive heaps,
+ * so a schedule costs O((V + E) log V). Tasks on a cycle can only run as one unit, so a cyclic
+ * graph is scheduled on its condensation DAG with one task per strongly connected component.
+ */
+public class ListScheduler extends BaseMetrics {
+    private final Graph graph;
+
+    public ListScheduler(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Edge weights are task durations: a task runs as long as its heaviest out-edge and sinks take no time.
+     */
+    public ScheduleResult schedule(int workers) {
+        return schedule(graph, workers, heaviestOutEdges(), false);
+    }
+
+    /**
+     * {@code durations[v]} is the running time of task v and edge weights are lags, as in
+     * {@link DAGShortestPath#findCriticalPath(int[])}: v may start once u finished plus the weight of u->v.
+     */
+    public ScheduleResult schedule(int workers, int[] durations) {
+        return schedule(graph, workers, durations, true);
+    }
+
+    /**
+     * Schedules this graph's components as the tasks of {@code condensation}, which must have been built from
+     * this graph. A component runs for the sum of its members' durations under {@link #schedule(int)}, and the
+     * result is indexed by component id.
+     */
+    public ScheduleResult scheduleCondensed(int workers, SCCFinder.CondensationResult condensation) {
+        return schedule(condensation.getGraph(), workers, componentDurations(condensation, heaviestOutEdges()), false);
+    }
+
+    /**
+     * Like {@link #schedule(int, int[])} on the condensation: a component runs for the sum of its members'
+     * {@code durations} and the condensation's edge weights are lags.
+     */
+    public ScheduleResult scheduleCondensed(int workers, SCCFinder.CondensationResult condensation, int[] durations) {
+        checkDurations(durations, graph.getVerticesCount());
+        return schedule(condensation.getGraph(), workers, componentDurations(condensation, durations), true);
+    }
+
+    private int[] heaviestOutEdges() {
+        int[] durations = new int[graph.getVerticesCount()];
+        for (int u = 0; u < durations.length; u++) {
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                durations[u] = Math.max(durations[u], graph.getEdgeWeight(e));
+            }
+        }
+        return durations;
+    }
+
+    private int[] componentDurations(SCCFinder.CondensationResult condensation, int[] durations) {
+        int[] componentOf = condensation.getComponentOf();
+        if (componentOf.length != graph.getVerticesCount()) {
+            throw new IllegalArgumentException("Condensation covers " + componentOf.length + " tasks, graph has "
+                    + graph.getVerticesCount());
+        }
+        int[] total = new int[condensation.getComponentCount()];
+        for (int v = 0; v < componentOf.length; v++) {
+            total[componentOf[v]] = Math.addExact(total[componentOf[v]], durations[v]);
+        }
+        return total;
+    }
+
+    private static void checkDurations(int[] durations, int n) {
+        if (durations.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " durations, got " + durations.length);
+        }
+        for (int v = 0; v < n; v++) {
+            if (durations[v] < 0) {
+                throw new IllegalArgumentException("Task " + v + " has negative duration " + durations[v]);
+            }
+        }
+    }
+
+    private ScheduleResult schedule(Graph dag, int workers, int[] durations, boolean edgeWeightsAsLags) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker: " + workers);
+        }
+        int n = dag.getVerticesCount();
+        checkDurations(durations, n);
+
+        // Throws IllegalArgumentException on cycles before anything is dispatched
+        int[] priority = new DAGShortestPath(dag).longestPathsToSink(durations, edgeWeightsAsLags);
+        reset();
+        long phase = startPhase();
+
+        int[] start = new int[n];
+        int[] finish = new int[n];
+        int[] worker = new int[n];
+        int[] dispatched = new int[n];
+        int[] readyTime = new int[n];
+        int[] waitingFor = new int[n];
+        IntHeap pending = new IntHeap(); // released, keyed by earliest start
+        IntHeap ready = new IntHeap(); // startable, keyed by -priority
+        IntHeap running = new IntHeap(Math.min(n, workers)); // keyed by finish time
+        IntHeap idle = new IntHeap(Math.min(n, workers)); // free workers, lowest id first
+        for (int w = 0; w < Math.min(n, workers); w++) {
+            idle.push(w, w);
+        }
+        for (int v = 0; v < n; v++) {
+            waitingFor[v] = dag.getInDegree(v);
+            if (waitingFor[v] == 0) {
+                ready.push(-(long) priority[v], v);
+            }
+        }
+
+        int time = 0;
+        int done = 0;
+        int started = 0;
+        int makespan = 0;
+        while (done < n) {
+            while (!running.isEmpty() && running.peekKey() <= time) {
+                int u = running.pop();
+                idle.push(worker[u], worker[u]);
+                done++;
+                for (int e = dag.getEdgeStart(u); e < dag.getEdgeEnd(u); e++) {
+                    int v = dag.getEdgeTarget(e);
+                    int lag = edgeWeightsAsLags ? dag.getEdgeWeight(e) : 0;
+                    readyTime[v] = Math.max(readyTime[v], Math.addExact(finish[u], lag));
+                    if (--waitingFor[v] == 0 && readyTime[v] <= time) {
+                        ready.push(-(long) priority[v], v);
+                    } else if (waitingFor[v] == 0) {
+                        pending.push(readyTime[v], v);
+                    }
+                    incrementOperationCount();
+                }
+            }
+            while (!pending.isEmpty() && pending.peekKey() <= time) {
+                int v = pending.pop();
+                ready.push(-(long) priority[v], v);
+            }
+            while (!ready.isEmpty() && !idle.isEmpty()) {
+                int v = ready.pop();
+                int w = idle.pop();
+                start[v] = time;
+                finish[v] = Math.addExact(time, durations[v]);
+                worker[v] = w;
+                dispatched[started++] = v;
+                makespan = Math.max(makespan, finish[v]);
+                running.push(finish[v], v);
+                incrementOperationCount();
+            }
+
+            // Next event: a task finishes or a lag runs out; zero-length tasks finish at the same time
+            long next = Long.MAX_VALUE;
+            if (!running.isEmpty()) {
+                next = running.peekKey();
+            }
+            if (!pending.isEmpty()) {
+                next = Math.min(next, pending.peekKey());
+            }
+            if (next == Long.MAX_VALUE) {
+                break;
+            }
+            time = (int) Math.max(time, next);
+        }
+        endPhase(Phase.RELAXATION, phase);
+
+        return new ScheduleResult(start, finish, worker, dispatched, makespan, Math.min(n, workers),
+                getOperationCount(), getTimeNanos());
+    }
+
+    public static class ScheduleResult {
+        private final int[] start;
+        private final int[] finish;
+        private final int[] worker;
+        private final int[] dispatched;
+        private final int makespan;
+        private final int workers;
+        private final long operations;
+        private final long timeNanos;
+
+        public ScheduleResult(int[] start, int[] finish, int[] worker, int[] dispatched, int makespan, int workers,
+                              long operations, long timeNanos) {
+            this.start = start;
+            this.finish = finish;
+            this.worker = worker;
+            this.dispatched = dispatched;
+            this.makespan = makespan;
+            this.workers = workers;
+            this.operations = operations;
+            this.timeNanos = timeNanos;
+        }
+
+        public int[] getStart() { return start; }
+        public int[] getFinish() { return finish; }
+        public int[] getWorker() { return worker; }
+        public int getMakespan() { return makespan; }
+        public long getOperations() { return operations; }
+        public long getTimeNanos() { return timeNanos; }
+
+        /**
+         * Tasks in the order they were started, i.e. by start time.
+         */
+        public int[] getDispatchOrder() { return dispatched; }
+
+        /**
+         * Task ids per worker in start order.
+         */
+        public int[][] getWorkerTimelines() {
+            int[] count = new int[workers];
+            for (int w : worker) {
+                count[w]++;
+            }
+            int[][] timelines = new int[workers][];
+            for (int w = 0; w < workers; w++) {
+                timelines[w] = new int[count[w]];
+                count[w] = 0;
+            }
+            for (int v : dispatched) {
+                timelines[worker[v]][count[worker[v]]++] = v;
+            }
+            return timelines;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,296 @@
+package graph.server;
+
+import graph.cache.AnalysisCache;
+import graph.common.Graph;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.HybridShortestPath;
+import graph.model.EdgeList;
+import graph.reach.ReachabilityIndex;
+import graph.util.BinaryGraphUtil;
+import graph.util.JsonUtil;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One loaded version of a served graph with everything a query needs precomputed: a topological order with
+ * each vertex's position in it, a reachability index and the critical path (on the condensation when the
+ * graph has cycles). Path queries on a cyclic graph run {@link HybridShortestPath} over its cached SCCs.
+ * Immutable, so a request keeps answering from the snapshot it started with while a reload swaps in the next one.
+ */
+public final class GraphSnapshot {
+    private final String name;
+    private final File file;
+    private final long version;
+    private final long lastModified;
+    private final long fileLength;
+    private final int vertices;
+    private final int edges;
+    private final Graph graph;
+    private final Integer source;
+    private final int[] componentOf;
+    private final int componentCount;
+    private final boolean onCondensation;
+    private final Graph pathGraph;
+    private final int[] order;
+    private final int[] position;
+    private final ReachabilityIndex reachability;
+    private final List<Integer> criticalPath;
+    private final int criticalPathLength;
+    // One solver per handler thread, since its heap is reused between queries; null when acyclic
+    private final ThreadLocal<HybridShortestPath> hybrid;
+
+    private GraphSnapshot(String name, File file, long version, long lastModified, long fileLength, Graph graph,
+                          Integer source, AnalysisCache.Analysis analysis) {
+        this.name = name;
+        this.file = file;
+        this.version = version;
+        this.lastModified = lastModified;
+        this.fileLength = fileLength;
+        this.vertices = graph.getVerticesCount();
+        this.edges = graph.getEdgesCount();
+        this.graph = graph;
+        this.source = source;
+        this.componentOf = analysis.getComponentOf();
+        this.componentCount = analysis.getComponentCount();
+        // A self-loop leaves its vertex a single-vertex SCC, yet the graph is not a DAG
+        this.onCondensation = componentCount != vertices || graph.hasSelfLoops();
+
+        int[] componentOrder = analysis.getTopologicalOrder();
+        if (onCondensation) {
+            pathGraph = analysis.getCondensation();
+            order = componentOrder;
+        } else {
+            // Acyclic: every component is a single vertex, so the component order is a vertex order
+            pathGraph = graph;
+            int[] vertexOf = new int[componentCount];
+            for (int v = 0; v < vertices; v++) {
+                vertexOf[componentOf[v]] = v;
+            }
+            order = new int[componentCount];
+            for (int i = 0; i < componentCount; i++) {
+                order[i] = vertexOf[componentOrder[i]];
+            }
+        }
+        position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+
+        reachability = new ReachabilityIndex(componentOf, analysis.getCondensation(),
+                ReachabilityIndex.DEFAULT_TRAVERSALS, 1L);
+        DAGShortestPath.CriticalPathResult critical = new DAGShortestPath(pathGraph).findCriticalPath();
+        this.criticalPath = critical.getPath();
+        this.criticalPathLength = critical.getLength();
+        this.hybrid = onCondensation
+                ? ThreadLocal.withInitial(() -> new HybridShortestPath(graph, componentOf, componentOrder))
+                : null;
+    }
+
+    /**
+     * Loads a .json or .bin graph file. A .bin file is memory-mapped; {@link BinaryGraphUtil#write} replaces
+     * it by rename, so requests still on the old snapshot keep reading the old file.
+     */
+    static GraphSnapshot load(String name, File file, long version, AnalysisCache cache) throws IOException {
+        long lastModified = file.lastModified();
+        long fileLength = file.length();
+        Graph graph;
+        Integer source;
+        if (file.getName().endsWith(".bin")) {
+            BinaryGraphUtil.MappedGraph mapped = BinaryGraphUtil.map(file);
+            graph = mapped;
+            source = mapped.getSource();
+        } else {
+            EdgeList edgeList = JsonUtil.readEdgeList(file);
+            graph = edgeList.toGraph();
+            source = edgeList.getSource();
+        }
+        return new GraphSnapshot(name, file, version, lastModified, fileLength, graph, source, cache.get(graph));
+    }
+
+    public String getName() { return name; }
+    public File getFile() { return file; }
+    public long getVersion() { return version; }
+    public int getVertices() { return vertices; }
+    public int getEdges() { return edges; }
+    public Integer getSource() { return source; }
+    public int getComponentCount() { return componentCount; }
+    public boolean isOnCondensation() { return onCondensation; }
+
+    /**
+     * Critical path of the path graph; component ids when {@link #isOnCondensation()}.
+     */
+    public List<Integer> getCriticalPath() { return criticalPath; }
+    public int getCriticalPathLength() { return criticalPathLength; }
+
+    /**
+     * True if {@code to} transitively depends on {@code from}; answered from the index without a search
+     * for most pairs.
+     */
+    public boolean reaches(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        return reachability.reaches(from, to);
+    }
+
+    boolean isStale() {
+        return file.lastModified() != lastModified || file.length() != fileLength;
+    }
+
+    /**
+     * Shortest or longest path between two vertices. Only the slice of the topological order between
+     * the two endpoints can lie on a path, so only that slice is relaxed, using per-thread scratch arrays.
+     * On a cyclic graph shortest paths come from {@link HybridShortestPath}, and longest paths, which are
+     * unbounded around positive cycles, are rejected with IllegalArgumentException.
+     */
+    public PathAnswer path(int from, int to, boolean longest) {
+        checkVertex(from);
+        checkVertex(to);
+        if (onCondensation) {
+            if (longest) {
+                throw new IllegalArgumentException("Longest paths are not supported on cyclic graph " + name
+                        + " (" + componentCount + " SCCs for " + vertices + " vertices)");
+            }
+            return cyclicPath(from, to);
+        }
+        int s = from;
+        int t = to;
+        if (s == t) {
+            return new PathAnswer(true, 0, new int[] {s}, 0);
+        }
+        if (position[s] > position[t] || !reachability.reaches(from, to)) {
+            return new PathAnswer(false, 0, new int[0], 0);
+        }
+
+        Scratch scratch = Scratch.get(order.length);
+        int stamp = scratch.nextStamp();
+        long[] dist = scratch.dist;
+        int[] prev = scratch.prev;
+        int[] seen = scratch.seen;
+        dist[s] = 0;
+        prev[s] = -1;
+        seen[s] = stamp;
+
+        long relaxed = 0;
+        int end = position[t];
+        for (int i = position[s]; i < end; i++) {
+            int u = order[i];
+            if (seen[u] != stamp) {
+                continue;
+            }
+            for (int e = pathGraph.getEdgeStart(u); e < pathGraph.getEdgeEnd(u); e++) {
+                int v = pathGraph.getEdgeTarget(e);
+                if (position[v] > end) {
+                    continue;
+                }
+                long candidate = dist[u] + pathGraph.getEdgeWeight(e);
+                if (seen[v] != stamp || (longest ? candidate > dist[v] : candidate < dist[v])) {
+                    seen[v] = stamp;
+                    dist[v] = candidate;
+                    prev[v] = u;
+                }
+                relaxed++;
+            }
+        }
+        if (seen[t] != stamp) {
+            return new PathAnswer(false, 0, new int[0], relaxed);
+        }
+
+        int hops = 0;
+        for (int v = t; v != -1; v = prev[v]) {
+            hops++;
+        }
+        int[] path = new int[hops];
+        for (int v = t; v != -1; v = prev[v]) {
+            path[--hops] = v;
+        }
+        return new PathAnswer(true, dist[t], path, relaxed);
+    }
+
+    // Whole single-source run; reports the out-edges of every reached vertex, which is what it relaxes
+    private PathAnswer cyclicPath(int from, int to) {
+        if (from == to) {
+            return new PathAnswer(true, 0, new int[] {from}, 0);
+        }
+        if (!reachability.reaches(from, to)) {
+            return new PathAnswer(false, 0, new int[0], 0);
+        }
+        HybridShortestPath.DistanceResult result = hybrid.get().shortestPathsFromSource(from);
+        long[] dist = result.getDistances();
+        long relaxed = 0;
+        for (int v = 0; v < vertices; v++) {
+            if (dist[v] != HybridShortestPath.UNREACHABLE) {
+                relaxed += graph.getOutDegree(v);
+            }
+        }
+        List<Integer> vertexPath = result.getPath(to);
+        int[] path = new int[vertexPath.size()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = vertexPath.get(i);
+        }
+        return new PathAnswer(path.length > 0, path.length > 0 ? dist[to] : 0, path, relaxed);
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertices) {
+            throw new IndexOutOfBoundsException("Vertex " + vertex + " out of range [0, " + vertices + ")");
+        }
+    }
+
+    /**
+     * Result of one path query; the path lists vertices from the source to the target.
+     */
+    public static final class PathAnswer {
+        private final boolean reachable;
+        private final long distance;
+        private final int[] path;
+        private final long relaxedEdges;
+
+        PathAnswer(boolean reachable, long distance, int[] path, long relaxedEdges) {
+            this.reachable = reachable;
+            this.distance = distance;
+            this.path = path;
+            this.relaxedEdges = relaxedEdges;
+        }
+
+        public boolean isReachable() { return reachable; }
+        public long getDistance() { return distance; }
+        public int[] getPath() { return path; }
+        public long getRelaxedEdges() { return relaxedEdges; }
+
+        @Override
+        public String toString() {
+            return reachable ? distance + " via " + Arrays.toString(path) : "unreachable";
+        }
+    }
+
+    // Per-thread distance arrays; a stamp marks the entries written by the current query, so nothing is cleared
+    private static final class Scratch {
+        private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+
+        private long[] dist = new long[0];
+        private int[] prev = new int[0];
+        private int[] seen = new int[0];
+        private int stamp;
+
+        static Scratch get(int size) {
+            Scratch scratch = LOCAL.get();
+            if (scratch.dist.length < size) {
+                scratch.dist = new long[size];
+                scratch.prev = new int[size];
+                scratch.seen = new int[size];
+                scratch.stamp = 0;
+            }
+            return scratch;
+        }
+
+        int nextStamp() {
+            if (++stamp == 0) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,308 @@
+package graph.server;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import graph.cache.AnalysisCache;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP server that keeps graphs loaded and answers path queries from their precomputed
+ * {@link GraphSnapshot}s. All responses are JSON:
+ * <pre>
+ * GET  /graphs                                   loaded graphs and their versions
+ * GET  /path?graph=g&amp;from=s&amp;to=t[&amp;mode=longest]  shortest (default) or longest s-t path
+ * GET  /reachable?graph=g&amp;from=s&amp;to=t            whether t depends on s
+ * GET  /critical?graph=g                         critical path
+ * POST /reload?graph=g                           re-read the graph file now
+ * </pre>
+ * A reload builds the new snapshot next to the old one and then swaps it in, so requests already
+ * running finish on the version they started with. With a watch interval the files are also polled
+ * and reloaded when their size or modification time changes.
+ */
+public class QueryServer {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Map<String, GraphSnapshot> graphs = new ConcurrentHashMap<>();
+    private final Map<String, File> files = new ConcurrentHashMap<>();
+    private final AnalysisCache cache;
+    private final AtomicLong versions = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+    private ScheduledExecutorService watcher;
+
+    /**
+     * @param cache shared by all loads; reloading an unchanged graph then skips the SCC stage
+     */
+    public QueryServer(AnalysisCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Loads a graph under the file name without its extension and returns that name.
+     */
+    public String load(File file) throws IOException {
+        String name = file.getName().replaceFirst("\\.[^.]*$", "");
+        graphs.put(name, GraphSnapshot.load(name, file, versions.incrementAndGet(), cache));
+        files.put(name, file);
+        return name;
+    }
+
+    /**
+     * Re-reads a loaded graph's file and swaps in the new snapshot. On failure the old one stays served.
+     */
+    public GraphSnapshot reload(String name) throws IOException {
+        File file = files.get(name);
+        if (file == null) {
+            throw new IllegalArgumentException("Unknown graph: " + name);
+        }
+        GraphSnapshot snapshot = GraphSnapshot.load(name, file, versions.incrementAndGet(), cache);
+        graphs.put(name, snapshot);
+        return snapshot;
+    }
+
+    public GraphSnapshot getSnapshot(String name) {
+        GraphSnapshot snapshot = graphs.get(name);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Unknown graph: " + name);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Starts serving on {@code port} (0 picks a free one) with a fixed pool of {@code threads} handlers.
+     * Handlers are long-lived platform threads so each keeps its query scratch arrays between requests.
+     */
+    public void start(int port, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/graphs", exchange -> handle(exchange, this::listGraphs));
+        server.createContext("/path", exchange -> handle(exchange, this::path));
+        server.createContext("/reachable", exchange -> handle(exchange, this::reachable));
+        server.createContext("/critical", exchange -> handle(exchange, this::critical));
+        server.createContext("/reload", exchange -> {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                handle(exchange, this::reload);
+            } else {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Use POST for /reload");
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Polls every loaded file each {@code intervalMillis} and reloads the ones that changed.
+     */
+    public void watch(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Watch interval must be positive: " + intervalMillis);
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "graph-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            for (GraphSnapshot snapshot : graphs.values()) {
+                if (snapshot.isStale()) {
+                    try {
+                        reload(snapshot.getName());
+                        System.out.println("Reloaded " + snapshot.getName());
+                    } catch (Exception e) {
+                        // Half-written file: keep serving the old snapshot and retry on the next poll
+                        System.out.println("Reload of " + snapshot.getName() + " failed: " + e.getMessage());
+                    }
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Handler {
+        void write(Map<String, String> params, JsonGenerator json) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        int status = 200;
+        try (JsonGenerator json = JSON.createGenerator(body)) {
+            handler.write(parseQuery(exchange.getRequestURI().getRawQuery()), json);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            status = 400;
+            body.reset();
+            try (JsonGenerator json = JSON.createGenerator(body)) {
+                json.writeStartObject();
+                json.writeStringField("error", e.getMessage());
+                json.writeEndObject();
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            // Error too: a fault in a mapped file still gets an answer instead of a dropped connection
+            status = 500;
+            body.reset();
+            try (JsonGenerator json = JSON.createGenerator(body)) {
+                json.writeStartObject();
+                json.writeStringField("error", e.getClass().getSimpleName() + ": " + e.getMessage());
+                json.writeEndObject();
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            body.writeTo(out);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+        try (JsonGenerator json = JSON.createGenerator(body)) {
+            json.writeStartObject();
+            json.writeStringField("error", message);
+            json.writeEndObject();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            body.writeTo(out);
+        }
+    }
+
+    private void listGraphs(Map<String, String> params, JsonGenerator json) throws IOException {
+        json.writeStartArray();
+        for (GraphSnapshot snapshot : new TreeMap<>(graphs).values()) {
+            json.writeStartObject();
+            json.writeStringField("graph", snapshot.getName());
+            json.writeNumberField("version", snapshot.getVersion());
+            json.writeNumberField("vertices", snapshot.getVertices());
+            json.writeNumberField("edges", snapshot.getEdges());
+            json.writeNumberField("components", snapshot.getComponentCount());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private void path(Map<String, String> params, JsonGenerator json) throws IOException {
+        GraphSnapshot snapshot = getSnapshot(required(params, "graph"));
+        String mode = params.getOrDefault("mode", "shortest");
+        if (!"shortest".equals(mode) && !"longest".equals(mode)) {
+            throw new IllegalArgumentException("Mode must be shortest or longest: " + mode);
+        }
+        long start = System.nanoTime();
+        GraphSnapshot.PathAnswer answer = snapshot.path(intParam(params, "from"), intParam(params, "to"),
+                "longest".equals(mode));
+        long nanos = System.nanoTime() - start;
+
+        json.writeStartObject();
+        writeHeader(snapshot, json);
+        json.writeStringField("mode", mode);
+        json.writeBooleanField("reachable", answer.isReachable());
+        if (answer.isReachable()) {
+            json.writeNumberField("distance", answer.getDistance());
+            json.writeFieldName("path");
+            json.writeArray(answer.getPath(), 0, answer.getPath().length);
+        }
+        json.writeNumberField("relaxed_edges", answer.getRelaxedEdges());
+        json.writeNumberField("nanos", nanos);
+        json.writeEndObject();
+    }
+
+    private void reachable(Map<String, String> params, JsonGenerator json) throws IOException {
+        GraphSnapshot snapshot = getSnapshot(required(params, "graph"));
+        json.writeStartObject();
+        writeHeader(snapshot, json);
+        json.writeBooleanField("reachable", snapshot.reaches(intParam(params, "from"), intParam(params, "to")));
+        json.writeEndObject();
+    }
+
+    private void critical(Map<String, String> params, JsonGenerator json) throws IOException {
+        GraphSnapshot snapshot = getSnapshot(required(params, "graph"));
+        json.writeStartObject();
+        writeHeader(snapshot, json);
+        json.writeNumberField("length", snapshot.getCriticalPathLength());
+        json.writeArrayFieldStart("path");
+        for (int vertex : snapshot.getCriticalPath()) {
+            json.writeNumber(vertex);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private void reload(Map<String, String> params, JsonGenerator json) throws IOException {
+        GraphSnapshot snapshot = reload(required(params, "graph"));
+        json.writeStartObject();
+        writeHeader(snapshot, json);
+        json.writeNumberField("vertices", snapshot.getVertices());
+        json.writeNumberField("edges", snapshot.getEdges());
+        json.writeEndObject();
+    }
+
+    private static void writeHeader(GraphSnapshot snapshot, JsonGenerator json) throws IOException {
+        json.writeStringField("graph", snapshot.getName());
+        json.writeNumberField("version", snapshot.getVersion());
+        json.writeBooleanField("on_condensation", snapshot.isOnCondensation());
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int intParam(Map<String, String> params, String name) {
+        String value = required(params, name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " is not an integer: " + value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package graph.topo;
+
+import graph.common.BaseMetrics;
+import graph.common.Graph;
+import graph.common.IntList;
+import java.util.*;
+
+/**
+ * Topological order kept valid under edge insertions (Pearce-Kelly).
+ * An edge u->v that already agrees with the order costs O(1). Otherwise only the vertices whose
+ * position lies between v and u and that are reachable from v, or reach u, are searched and
+ * shuffled among their own positions. An insertion that would close a cycle is rejected before
+ * the graph is modified. Deletions never invalidate the order.
+ */
+public class DynamicTopologicalSort extends BaseMetrics {
+    private final int vertices;
+    private final IntList[] out;
+    private final IntList[] in;
+    private final int[] position;
+    private final int[] vertexAt;
+    private final boolean[] visited;
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+    private final IntList stack = new IntList();
+
+    public DynamicTopologicalSort(int vertices) {
+        this.vertices = vertices;
+        this.out = new IntList[vertices];
+        this.in = new IntList[vertices];
+        this.position = new int[vertices];
+        this.vertexAt = new int[vertices];
+        this.visited = new boolean[vertices];
+        for (int v = 0; v < vertices; v++) {
+            out[v] = new IntList();
+            in[v] = new IntList();
+            position[v] = v;
+            vertexAt[v] = v;
+        }
+    }
+
+    /**
+     * Starts from Kahn's order of {@code graph}; throws IllegalArgumentException if it has cycles.
+     */
+    public DynamicTopologicalSort(Graph graph) {
+        this(graph.getVerticesCount());
+        for (int u = 0; u < vertices; u++) {
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                out[u].add(graph.getEdgeTarget(e));
+                in[graph.getEdgeTarget(e)].add(u);
+            }
+        }
+        List<Integer> order = new TopologicalSort(graph).kahnTopologicalSort().getOrder();
+        for (int i = 0; i < order.size(); i++) {
+            vertexAt[i] = order.get(i);
+            position[order.get(i)] = i;
+        }
+    }
+
+    /**
+     * Inserts u->v and repairs the order. Throws IllegalArgumentException, leaving the graph
+     * unchanged, if v already reaches u.
+     */
+    public void addEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        reset();
+        if (u == v) {
+            throw new IllegalArgumentException("Edge " + u + "->" + v + " would create a cycle");
+        }
+
+        int lower = position[v];
+        int upper = position[u];
+        if (lower < upper) {
+            forward.clear();
+            backward.clear();
+            boolean cycle = !searchForward(v, upper);
+            if (!cycle) {
+                searchBackward(u, lower);
+                reorder();
+            }
+            clearVisited(forward);
+            clearVisited(backward);
+            if (cycle) {
+                throw new IllegalArgumentException("Edge " + u + "->" + v + " would create a cycle");
+            }
+        }
+
+        out[u].add(v);
+        in[v].add(u);
+        incrementOperationCount();
+    }
+
+    /**
+     * Removes one copy of u->v; returns false if it does not exist. The current order stays valid.
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        int i = out[u].indexOf(v);
+        if (i == -1) {
+            return false;
+        }
+        out[u].swapRemove(i);
+        in[v].swapRemove(in[v].indexOf(u));
+        return true;
+    }
+
+    public int getPosition(int vertex) {
+        return position[vertex];
+    }
+
+    /**
+     * The current order as a list of vertices, the same shape as {@link TopologicalSort.TopoResult#getOrder()}.
+     */
+    public List<Integer> getOrder() {
+        List<Integer> order = new ArrayList<>(vertices);
+        for (int i = 0; i < vertices; i++) {
+            order.add(vertexAt[i]);
+        }
+        return order;
+    }
+
+    // Collects vertices reachable from start with position <= upper; false if the vertex at upper is reached
+    private boolean searchForward(int start, int upper) {
+        stack.clear();
+        stack.add(start);
+        visited[start] = true;
+        forward.add(start);
+        while (!stack.isEmpty()) {
+            int w = stack.swapRemove(stack.size() - 1);
+            for (int i = 0; i < out[w].size(); i++) {
+                int x = out[w].get(i);
+                incrementOperationCount();
+                if (position[x] == upper) {
+                    return false;
+                }
+                if (!visited[x] && position[x] < upper) {
+                    visited[x] = true;
+                    forward.add(x);
+                    stack.add(x);
+                }
+            }
+        }
+        return true;
+    }
+
+    // Collects vertices that reach start with position >= lower
+    private void searchBackward(int start, int lower) {
+        stack.clear();
+        stack.add(start);
+        visited[start] = true;
+        backward.add(start);
+        while (!stack.isEmpty()) {
+            int w = stack.swapRemove(stack.size() - 1);
+            for (int i = 0; i < in[w].size(); i++) {
+                int x = in[w].get(i);
+                incrementOperationCount();
+                if (!visited[x] && position[x] > lower) {
+                    visited[x] = true;
+                    backward.add(x);
+                    stack.add(x);
+                }
+            }
+        }
+    }
+
+    // Backward set first, then forward set, each in its old relative order, into the union of their slots
+    private void reorder() {
+        int[] back = sortByPosition(backward);
+        int[] fwd = sortByPosition(forward);
+        int[] slots = new int[back.length + fwd.length];
+        int k = 0;
+        for (int w : back) {
+            slots[k++] = position[w];
+        }
+        for (int w : fwd) {
+            slots[k++] = position[w];
+        }
+        Arrays.sort(slots);
+
+        k = 0;
+        for (int w : back) {
+            place(w, slots[k++]);
+        }
+        for (int w : fwd) {
+            place(w, slots[k++]);
+        }
+        incrementOperationCount(slots.length);
+    }
+
+    private int[] sortByPosition(IntList list) {
+        int[] keys = new int[list.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = position[list.get(i)];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = vertexAt[keys[i]];
+        }
+        return keys;
+    }
+
+    private void place(int vertex, int slot) {
+        position[vertex] = slot;
+        vertexAt[slot] = vertex;
+    }
+
+    private void clearVisited(IntList list) {
+        for (int i = 0; i < list.size(); i++) {
+            visited[list.get(i)] = false;
+        }
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertices) {
+            throw new IndexOutOfBoundsException("Vertex " + vertex + " outside [0, " + vertices + ")");
+        }
+    }
+}
\ No newline at end of file
@@ -2,74 +2,259 @@ package graph.topo;
 
 import graph.common.Graph;
 import graph.common.BaseMetrics;
+import graph.common.IntList;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 public class TopologicalSort extends BaseMetrics {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+    private static final int LEVEL_CHUNK = 2048;
+
     private Graph graph;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
     public TopologicalSort(Graph graph) {
         this.graph = graph;
     }
 
+    /**
+     * Pool that wide levels are split across, the common pool by default; null levels on the calling thread.
+     * The pool is only borrowed and never shut down.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Graphs with fewer vertices plus edges than this are levelled on the calling thread.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
     public TopoResult kahnTopologicalSort() {
         reset();
+        long phase = startPhase();
 
         int vertices = graph.getVerticesCount();
         int[] inDegree = new int[vertices];
 
-        for (int u = 0; u < vertices; u++) {
-            for (int v : graph.getAdjacent(u)) {
-                inDegree[v]++;
-                incrementOperationCount();
-            }
+        for (int v = 0; v < vertices; v++) {
+            inDegree[v] = graph.getInDegree(v);
             incrementOperationCount();
         }
 
-        Queue<Integer> queue = new LinkedList<>();
+        // The order array doubles as the FIFO queue: [head, tail) is waiting, [0, head) is emitted
+        int[] topoOrder = new int[vertices];
+        int tail = 0;
         for (int i = 0; i < vertices; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
+                topoOrder[tail++] = i;
             }
             incrementOperationCount();
         }
 
-        List<Integer> topoOrder = new ArrayList<>();
-        int visitedCount = 0;
-
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            topoOrder.add(u);
-            visitedCount++;
-
-            for (int v : graph.getAdjacent(u)) {
+        for (int head = 0; head < tail; head++) {
+            int u = topoOrder[head];
+            for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                int v = graph.getEdgeTarget(e);
                 inDegree[v]--;
                 if (inDegree[v] == 0) {
-                    queue.offer(v);
+                    topoOrder[tail++] = v;
                 }
                 incrementOperationCount();
             }
             incrementOperationCount();
         }
 
-        if (visitedCount != vertices) {
+        if (tail != vertices) {
             throw new IllegalArgumentException("Graph has cycles - topological sort not possible");
         }
+        endPhase(Phase.TOPOLOGICAL_ORDER, phase);
 
         return new TopoResult(topoOrder, getOperationCount(), getTimeNanos());
     }
 
+    /**
+     * Level-synchronous Kahn: level 0 holds the sources, level k the vertices whose last predecessor
+     * is in level k-1, so every vertex of a level can run as soon as the previous levels are done.
+     * The levels are written back to back into one order array, each one releasing the next behind it;
+     * large ones are split across the pool, which decrements in-degrees atomically.
+     * Each level is sorted ascending, so the result does not depend on the thread count.
+     */
+    public LevelResult levelTopologicalSort() {
+        reset();
+        long phase = startPhase();
+
+        int vertices = graph.getVerticesCount();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(vertices);
+        int[] order = new int[vertices];
+        int tail = 0;
+        for (int v = 0; v < vertices; v++) {
+            inDegree.set(v, graph.getInDegree(v));
+            if (graph.getInDegree(v) == 0) {
+                order[tail++] = v;
+            }
+        }
+        incrementOperationCount(vertices);
+
+        boolean parallel = pool != null && pool.getParallelism() > 1
+                && (long) vertices + graph.getEdgesCount() >= parallelThreshold;
+        IntList offsets = new IntList();
+        AtomicInteger released = new AtomicInteger(tail);
+        int head = 0;
+        while (head < tail) {
+            offsets.add(head);
+            sortLevel(order, head, tail, parallel);
+            LevelTask task = new LevelTask(order, head, tail, released, inDegree);
+            if (parallel && tail - head > LEVEL_CHUNK) {
+                pool.invoke(task);
+            } else {
+                task.release(head, tail);
+            }
+            head = tail;
+            tail = released.get();
+        }
+        offsets.add(head);
+
+        if (head != vertices) {
+            throw new IllegalArgumentException("Graph has cycles - topological sort not possible");
+        }
+        endPhase(Phase.TOPOLOGICAL_ORDER, phase);
+
+        return new LevelResult(order, offsets.toArray(), getOperationCount(), getTimeNanos());
+    }
+
+    // Run inside the pool, so parallelSort forks onto it rather than onto the common pool
+    private void sortLevel(int[] order, int from, int to, boolean parallel) {
+        if (parallel && to - from > LEVEL_CHUNK) {
+            pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(order, from, to)));
+        } else {
+            Arrays.sort(order, from, to);
+        }
+    }
+
+    // Releases the successors of order[from, to) whose in-degree drops to zero behind the current level
+    private class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int from;
+        private final int to;
+        private final AtomicInteger released;
+        private final AtomicIntegerArray inDegree;
+
+        LevelTask(int[] order, int from, int to, AtomicInteger released, AtomicIntegerArray inDegree) {
+            this.order = order;
+            this.from = from;
+            this.to = to;
+            this.released = released;
+            this.inDegree = inDegree;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEVEL_CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LevelTask(order, from, mid, released, inDegree),
+                        new LevelTask(order, mid, to, released, inDegree));
+                return;
+            }
+            release(from, to);
+        }
+
+        void release(int start, int end) {
+            IntList ready = new IntList();
+            long ops = 0;
+            for (int i = start; i < end; i++) {
+                int u = order[i];
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    int v = graph.getEdgeTarget(e);
+                    if (inDegree.decrementAndGet(v) == 0) {
+                        ready.add(v);
+                    }
+                }
+                ops += graph.getOutDegree(u) + 1;
+            }
+            // One reservation per chunk keeps the shared counter out of the inner loop
+            int at = released.getAndAdd(ready.size());
+            for (int i = 0; i < ready.size(); i++) {
+                order[at + i] = ready.get(i);
+            }
+            incrementOperationCount(ops);
+        }
+    }
+
+    public static class LevelResult {
+        private final int[] order;
+        private final int[] levelOffsets;
+        private final long operations;
+        private final long timeNanos;
+        private List<List<Integer>> levels;
+
+        public LevelResult(int[] order, int[] levelOffsets, long operations, long timeNanos) {
+            this.order = order;
+            this.levelOffsets = levelOffsets;
+            this.operations = operations;
+            this.timeNanos = timeNanos;
+        }
+
+        /**
+         * The levels concatenated, which is itself a topological order; level i is
+         * {@code order[levelOffsets[i], levelOffsets[i + 1])}.
+         */
+        public int[] getOrderArray() { return order; }
+        public int[] getLevelOffsets() { return levelOffsets; }
+        public int getLevelCount() { return levelOffsets.length - 1; }
+        public long getOperations() { return operations; }
+        public long getTimeNanos() { return timeNanos; }
+
+        /**
+         * Read-only boxed views of the wavefronts in execution order, built on first use; the vertices
+         * inside one level have no edges between them.
+         */
+        public List<List<Integer>> getLevels() {
+            if (levels == null) {
+                List<List<Integer>> views = new ArrayList<>(getLevelCount());
+                for (int i = 0; i < getLevelCount(); i++) {
+                    views.add(IntList.asList(order, levelOffsets[i], levelOffsets[i + 1]));
+                }
+                levels = Collections.unmodifiableList(views);
+            }
+            return levels;
+        }
+
+        /**
+         * Read-only boxed view of {@link #getOrderArray()}.
+         */
+        public List<Integer> getOrder() { return IntList.asList(order, 0, order.length); }
+    }
+
     public static class TopoResult {
-        private final List<Integer> order;
+        private final int[] order;
         private final long operations;
         private final long timeNanos;
 
         public TopoResult(List<Integer> order, long operations, long timeNanos) {
+            this(order.stream().mapToInt(Integer::intValue).toArray(), operations, timeNanos);
+        }
+
+        public TopoResult(int[] order, long operations, long timeNanos) {
             this.order = order;
             this.operations = operations;
             this.timeNanos = timeNanos;
         }
 
-        public List<Integer> getOrder() { return order; }
+        /**
+         * Read-only boxed view of {@link #getOrderArray()}.
+         */
+        public List<Integer> getOrder() { return IntList.asList(order, 0, order.length); }
+        public int[] getOrderArray() { return order; }
         public long getOperations() { return operations; }
         public long getTimeNanos() { return timeNanos; }
     }
@@ -0,0 +1,220 @@
+package graph.util;
+
+import graph.common.Graph;
+import graph.common.OffHeapGraph;
+import graph.model.EdgeList;
+import graph.model.EdgeSink;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary graph format that can be memory-mapped instead of parsed.
+ * Layout (little-endian ints): a 32-byte header {magic, version, vertices, edges, source or -1, 0, 0, 0}
+ * followed by offsets[V+1], targets[E], weights[E], reverseOffsets[V+1], reverseSources[E], reverseWeights[E].
+ */
+public class BinaryGraphUtil {
+    public static final int MAGIC = 0x53434752; // "SCGR"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int MAX_SECTION_INTS = OffHeapGraph.MAX_SECTION_INTS;
+
+    public static void convertJson(String jsonPath, String binaryPath) throws IOException {
+        EdgeList edges = JsonUtil.readEdgeList(jsonPath);
+        write(edges.toGraph(), edges.getSource(), new File(binaryPath));
+    }
+
+    public static void write(Graph graph, Integer source, File file) throws IOException {
+        write(file, graph.getVerticesCount(), source, sink -> {
+            for (int u = 0; u < graph.getVerticesCount(); u++) {
+                for (int e = graph.getEdgeStart(u); e < graph.getEdgeEnd(u); e++) {
+                    sink.addEdge(u, graph.getEdgeTarget(e), graph.getEdgeWeight(e));
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes a graph whose edges are never held in memory. {@code edges} is replayed twice: once to count
+     * degrees, once to place each edge straight into the mapped forward and reverse sections.
+     * Only two int arrays of size V are kept on the heap. The file is written under a temporary name in the
+     * same directory and renamed over {@code file}, so a server still mapping the old version keeps reading it.
+     */
+    public static void write(File file, int vertices, Integer source, EdgeSource edges) throws IOException {
+        if (vertices < 0) {
+            throw new IllegalArgumentException("Vertex count must be non-negative: " + vertices);
+        }
+        int[] offsets = new int[vertices + 1];
+        int[] reverseOffsets = new int[vertices + 1];
+        long[] count = new long[1];
+        int[] last = new int[1];
+        edges.forEachEdge((from, to, weight) -> {
+            if (from < 0 || from >= vertices || to < 0 || to >= vertices) {
+                throw new IndexOutOfBoundsException("Edge " + from + "->" + to + " outside [0, " + vertices + ")");
+            }
+            if (from < last[0]) {
+                throw new IllegalArgumentException("Edges must be grouped by ascending source, got "
+                        + from + " after " + last[0]);
+            }
+            if (++count[0] > MAX_SECTION_INTS) {
+                throw new IllegalArgumentException("More than " + MAX_SECTION_INTS + " edges");
+            }
+            last[0] = from;
+            offsets[from + 1]++;
+            reverseOffsets[to + 1]++;
+        });
+        int edgeCount = (int) count[0];
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+
+        long size = HEADER_BYTES + 4L * (2L * (vertices + 1) + 4L * edgeCount);
+        File target = file.getAbsoluteFile();
+        File temp = File.createTempFile("." + target.getName() + ".", ".tmp", target.getParentFile());
+        try {
+            writeSections(temp, vertices, source, edges, edgeCount, size, offsets, reverseOffsets);
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    private static void writeSections(File file, int vertices, Integer source, EdgeSource edges, int edgeCount,
+                                      long size, int[] offsets, int[] reverseOffsets) throws IOException {
+        MappedByteBuffer[] mappings = new MappedByteBuffer[7];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            mappings[0] = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            mappings[0].order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(VERSION).putInt(vertices).putInt(edgeCount)
+                    .putInt(source != null ? source : -1).putInt(0).putInt(0).putInt(0);
+
+            // offsets, targets, weights, reverseOffsets, reverseSources, reverseWeights
+            long position = HEADER_BYTES;
+            for (int i = 1; i < mappings.length; i++) {
+                int count = i % 3 == 1 ? vertices + 1 : edgeCount;
+                mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, 4L * count);
+                position += 4L * count;
+            }
+            if (position != size) {
+                throw new IllegalStateException("Section layout does not add up to " + size + " bytes");
+            }
+            ints(mappings[1]).put(offsets);
+            IntBuffer targets = ints(mappings[2]);
+            IntBuffer weights = ints(mappings[3]);
+            ints(mappings[4]).put(reverseOffsets);
+            IntBuffer reverseSources = ints(mappings[5]);
+            IntBuffer reverseWeights = ints(mappings[6]);
+
+            // offsets is no longer needed; reverseOffsets becomes the fill cursor for each in-edge row
+            int[] next = reverseOffsets;
+            int[] e = new int[1];
+            edges.forEachEdge((from, to, weight) -> {
+                if (e[0] == edgeCount) {
+                    throw new IllegalStateException("Edge source replayed more edges than on the first pass");
+                }
+                targets.put(e[0], to);
+                weights.put(e[0], weight);
+                e[0]++;
+                int r = next[to]++;
+                reverseSources.put(r, from);
+                reverseWeights.put(r, weight);
+            });
+            if (e[0] != edgeCount) {
+                throw new IllegalStateException("Edge source replayed " + e[0] + " edges, expected " + edgeCount);
+            }
+            // On disk before the file is renamed into place
+            for (MappedByteBuffer mapping : mappings) {
+                mapping.force();
+            }
+        } finally {
+            // Unmapped now rather than when collected, so the file is not locked on Windows when it is renamed
+            for (MappedByteBuffer mapping : mappings) {
+                if (mapping != null) {
+                    OffHeapGraph.free(mapping);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a binary graph file read-only. Startup cost is independent of the edge count:
+     * the header is checked and each section becomes an IntBuffer view over the page cache.
+     * Each section is mapped on its own, so a single array may hold up to 2^29 entries.
+     */
+    public static MappedGraph map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException("Not a graph file (too short): " + file);
+            }
+            // Read rather than mapped, so no mapping outlives the call when the header is rejected
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Keep reading until the header is complete
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Not a graph file (bad magic): " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("Unsupported graph file version " + header.getInt(4) + ": " + file);
+            }
+            int vertices = header.getInt(8);
+            int edges = header.getInt(12);
+            int source = header.getInt(16);
+
+            long expected = HEADER_BYTES + 4L * (2L * (vertices + 1) + 4L * edges);
+            if (vertices < 0 || edges < 0 || channel.size() != expected) {
+                throw new IllegalArgumentException("Graph file " + file + " has " + channel.size()
+                        + " bytes, header implies " + expected);
+            }
+
+            ByteBuffer[] sections = new ByteBuffer[6];
+            long position = HEADER_BYTES;
+            for (int i = 0; i < sections.length; i++) {
+                int count = i % 3 == 0 ? vertices + 1 : edges;
+                sections[i] = section(channel, position, count);
+                position += 4L * count;
+            }
+            return new MappedGraph(vertices, edges, source < 0 ? null : source, sections);
+        }
+    }
+
+    private static ByteBuffer section(FileChannel channel, long position, int count) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static IntBuffer ints(ByteBuffer section) {
+        return section.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Replays the same edges, grouped by ascending source vertex, every time it is called.
+     */
+    public interface EdgeSource {
+        void forEachEdge(EdgeSink sink) throws IOException;
+    }
+
+    /**
+     * A mapped graph file; {@link #close()} unmaps it at once, which also releases the file on Windows.
+     */
+    public static class MappedGraph extends OffHeapGraph {
+        private final Integer source;
+
+        MappedGraph(int vertices, int edges, Integer source, ByteBuffer[] sections) {
+            super(vertices, edges, sections);
+            this.source = source;
+        }
+
+        public Integer getSource() { return source; }
+    }
+}
\ No newline at end of file
@@ -1,11 +1,15 @@
 package graph.util;
 
+import graph.model.EdgeList;
+import graph.model.EdgeSink;
 import graph.model.GraphData;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class DataGenerator {
     private static final Random random = new Random(42);
+    private static final long DEGREE_SALT = 0x5DEECE66DL;
 
     public static void generateAllDatasets() {
         System.out.println("Generating 9 datasets...");
@@ -39,6 +43,309 @@ public class DataGenerator {
         }
     }
 
+    public enum WeightDistribution {
+        /** Every edge weighs minWeight. */
+        CONSTANT,
+        /** Uniform in [minWeight, maxWeight]. */
+        UNIFORM,
+        /** Mostly light edges: exponential with mean a quarter of the range above minWeight, capped at maxWeight. */
+        EXPONENTIAL
+    }
+
+    /**
+     * Parameters of a synthetic graph. The same settings and seed always produce the same edges in the same order.
+     * Vertices are laid out in {@code layers} layers of consecutive ids. Planted SCCs are rings of {@code sccSize}
+     * vertices inside a layer; every other edge points to one of the next {@code layerSpan} layers, so the planted
+     * rings are exactly the non-trivial SCCs. Out-degrees are uniform or, with a degree exponent above 1, power-law.
+     */
+    public static class SyntheticConfig {
+        private final int vertices;
+        private final long edges;
+        private long seed = 42;
+        private WeightDistribution weightDistribution = WeightDistribution.UNIFORM;
+        private int minWeight = 1;
+        private int maxWeight = 10;
+        private int sccCount;
+        private int sccSize;
+        private double sccEdgeFraction;
+        private int layers;
+        private int layerSpan = Integer.MAX_VALUE;
+        private double degreeExponent;
+
+        public SyntheticConfig(int vertices, long edges) {
+            if (vertices < 1 || edges < 0) {
+                throw new IllegalArgumentException("Need at least one vertex and a non-negative edge count: "
+                        + vertices + " vertices, " + edges + " edges");
+            }
+            this.vertices = vertices;
+            this.edges = edges;
+        }
+
+        public SyntheticConfig seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SyntheticConfig weights(WeightDistribution distribution, int minWeight, int maxWeight) {
+            if (minWeight > maxWeight) {
+                throw new IllegalArgumentException("Weight range [" + minWeight + ", " + maxWeight + "] is empty");
+            }
+            this.weightDistribution = distribution;
+            this.minWeight = minWeight;
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /** Plants {@code count} SCCs of {@code size} vertices each; size must fit in one layer. */
+        public SyntheticConfig plantedSccs(int count, int size) {
+            if (count < 0 || (count > 0 && size < 2)) {
+                throw new IllegalArgumentException("Planted SCCs need a non-negative count and size >= 2: "
+                        + count + " x " + size);
+            }
+            this.sccCount = count;
+            this.sccSize = size;
+            return this;
+        }
+
+        /** Fraction of the random out-edges of a planted SCC vertex that stay inside its SCC. */
+        public SyntheticConfig sccEdgeFraction(double fraction) {
+            if (fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException("SCC edge fraction must be in [0, 1]: " + fraction);
+            }
+            this.sccEdgeFraction = fraction;
+            return this;
+        }
+
+        /**
+         * DAG depth. Width is vertices / layers; with {@code span} 1 every edge goes to the next layer,
+         * so the longest path has exactly layers - 1 edges between layers.
+         */
+        public SyntheticConfig layers(int layers, int span) {
+            if (layers < 1 || span < 1) {
+                throw new IllegalArgumentException("Layers and span must be positive: " + layers + ", " + span);
+            }
+            this.layers = layers;
+            this.layerSpan = span;
+            return this;
+        }
+
+        /** Power-law out-degree with P(d) ~ d^-exponent; 0 keeps degrees uniform. */
+        public SyntheticConfig powerLawDegrees(double exponent) {
+            if (exponent != 0 && exponent <= 1) {
+                throw new IllegalArgumentException("Power-law exponent must be above 1: " + exponent);
+            }
+            this.degreeExponent = exponent;
+            return this;
+        }
+
+        public int getVertices() { return vertices; }
+        public long getEdges() { return edges; }
+    }
+
+    /**
+     * Streams the edges of a synthetic graph into {@code sink}, grouped by ascending source vertex.
+     * Only one int per vertex is held in memory, whatever the edge count.
+     */
+    public static void generate(SyntheticConfig config, EdgeSink sink) throws IOException {
+        new SyntheticGraph(config).forEachEdge(sink);
+    }
+
+    public static EdgeList generateEdgeList(SyntheticConfig config) {
+        if (config.edges > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges for an in-memory edge list: " + config.edges);
+        }
+        EdgeList list = new EdgeList((int) config.edges);
+        list.setVertices(config.vertices);
+        list.setSource(0);
+        try {
+            generate(config, list);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return list;
+    }
+
+    /**
+     * Writes a synthetic graph in the JSON format of the bundled datasets, one edge at a time.
+     */
+    public static void writeJson(SyntheticConfig config, File file) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write("{");
+            writer.newLine();
+            writer.write("  \"directed\": true,");
+            writer.newLine();
+            writer.write("  \"n\": " + config.vertices + ",");
+            writer.newLine();
+            writer.write("  \"edges\": [");
+            boolean[] first = {true};
+            generate(config, (u, v, w) -> {
+                if (!first[0]) {
+                    writer.write(',');
+                }
+                first[0] = false;
+                writer.newLine();
+                writer.write("    {\"u\": ");
+                writer.write(Integer.toString(u));
+                writer.write(", \"v\": ");
+                writer.write(Integer.toString(v));
+                writer.write(", \"w\": ");
+                writer.write(Integer.toString(w));
+                writer.write('}');
+            });
+            writer.newLine();
+            writer.write("  ],");
+            writer.newLine();
+            writer.write("  \"source\": 0,");
+            writer.newLine();
+            writer.write("  \"weight_model\": \"edge\"");
+            writer.newLine();
+            writer.write("}");
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Writes a synthetic graph in the binary format of {@link BinaryGraphUtil}; the edges are generated twice
+     * instead of being buffered.
+     */
+    public static void writeBinary(SyntheticConfig config, File file) throws IOException {
+        if (config.edges > Integer.MAX_VALUE / Integer.BYTES) {
+            throw new IllegalArgumentException("Binary format holds at most " + Integer.MAX_VALUE / Integer.BYTES
+                    + " edges: " + config.edges);
+        }
+        SyntheticGraph graph = new SyntheticGraph(config);
+        BinaryGraphUtil.write(file, config.vertices, 0, graph::forEachEdge);
+    }
+
+    // Layout and degrees are fixed up front; each vertex draws its edges from its own seeded stream
+    private static final class SyntheticGraph {
+        private final SyntheticConfig config;
+        private final int width;
+        private final int blocksPerLayer;
+        private final int[] degree;
+
+        SyntheticGraph(SyntheticConfig config) {
+            this.config = config;
+            int n = config.vertices;
+            int w = config.layers > 0
+                    ? (int) ((n + (long) config.layers - 1) / config.layers)
+                    : Math.max(1, config.sccSize);
+            this.width = w;
+            this.blocksPerLayer = config.sccCount > 0 ? w / config.sccSize : 0;
+            if (config.sccCount > 0) {
+                long capacity = (long) (n / w) * blocksPerLayer + Math.min(blocksPerLayer, (n % w) / config.sccSize);
+                if (config.sccSize > w || capacity < config.sccCount) {
+                    throw new IllegalArgumentException(config.sccCount + " SCCs of size " + config.sccSize
+                            + " do not fit in layers of width " + w);
+                }
+            }
+
+            long randomEdges = config.edges - (long) config.sccCount * config.sccSize;
+            if (randomEdges < 0) {
+                throw new IllegalArgumentException("Planted SCC rings alone need "
+                        + (long) config.sccCount * config.sccSize + " edges, only " + config.edges + " requested");
+            }
+            // Vertices of the last layer have nowhere to point
+            int lastLayer = (n - 1) / w;
+            int eligible = lastLayer * w;
+            if (randomEdges > 0 && eligible == 0) {
+                throw new IllegalArgumentException("A single layer cannot hold DAG edges; use more layers");
+            }
+            this.degree = new int[n];
+            assignDegrees(randomEdges, eligible);
+        }
+
+        private void assignDegrees(long total, int eligible) {
+            if (total == 0) {
+                return;
+            }
+            double sum = 0;
+            for (int u = 0; u < eligible; u++) {
+                degree[u] = rawDegree(u, eligible);
+                sum += degree[u];
+            }
+            long assigned = 0;
+            for (int u = 0; u < eligible; u++) {
+                long d = (long) (degree[u] * (total / sum));
+                if (d > Integer.MAX_VALUE - 1) {
+                    throw new IllegalArgumentException("Vertex " + u + " would get " + d + " out-edges");
+                }
+                degree[u] = (int) d;
+                assigned += d;
+            }
+            // Hand out the rounding remainder one edge at a time so the total is exact
+            for (int u = 0; assigned != total; u = (u + 1) % eligible) {
+                if (assigned < total) {
+                    degree[u]++;
+                    assigned++;
+                } else if (degree[u] > 0) {
+                    degree[u]--;
+                    assigned--;
+                }
+            }
+        }
+
+        private int rawDegree(int u, int cap) {
+            if (config.degreeExponent == 0) {
+                return 1;
+            }
+            double uniform = (mix(config.seed ^ DEGREE_SALT, u) >>> 11) * 0x1.0p-53;
+            double d = Math.pow(1 - uniform, -1 / (config.degreeExponent - 1));
+            return (int) Math.min(d, cap);
+        }
+
+        void forEachEdge(EdgeSink sink) throws IOException {
+            int n = config.vertices;
+            int size = config.sccSize;
+            for (int u = 0; u < n; u++) {
+                SplittableRandom rng = new SplittableRandom(mix(config.seed, u));
+                int layer = u / width;
+                int position = u % width;
+                int blockStart = -1;
+                if (position / Math.max(1, size) < blocksPerLayer
+                        && (long) layer * blocksPerLayer + position / size < config.sccCount) {
+                    blockStart = u - position % size;
+                    sink.addEdge(u, blockStart + (u - blockStart + 1) % size, weight(rng));
+                }
+
+                long lo = (long) (layer + 1) * width;
+                long hi = Math.min(n, lo + (long) config.layerSpan * width);
+                for (int i = 0; i < degree[u]; i++) {
+                    int v;
+                    if (blockStart >= 0 && config.sccEdgeFraction > 0 && rng.nextDouble() < config.sccEdgeFraction) {
+                        v = blockStart + (u - blockStart + 1 + rng.nextInt(size - 1)) % size;
+                    } else {
+                        v = (int) (lo + rng.nextInt((int) (hi - lo)));
+                    }
+                    sink.addEdge(u, v, weight(rng));
+                }
+            }
+        }
+
+        private int weight(SplittableRandom rng) {
+            int min = config.minWeight;
+            int max = config.maxWeight;
+            switch (config.weightDistribution) {
+                case CONSTANT:
+                    return min;
+                case EXPONENTIAL:
+                    double mean = (max - (double) min) / 4;
+                    return (int) Math.min(max, min + Math.floor(-Math.log(1 - rng.nextDouble()) * mean));
+                default:
+                    return (int) (min + rng.nextLong((long) max - min + 1));
+            }
+        }
+    }
+
+    // SplitMix64 finalizer over (seed, index), so neighbouring vertices get unrelated streams
+    private static long mix(long seed, long index) {
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
     private static GraphData createExampleTasks() {
         GraphData data = new GraphData(true, 8, null, 4, "edge");
         data.addEdge(0, 1, 3);
@@ -1,5 +1,11 @@
 package graph.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import graph.model.EdgeList;
 import graph.model.GraphData;
 import java.io.*;
 
@@ -8,107 +14,136 @@ import java.io.*;
  */
 public class JsonUtil {
 
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * Reads a graph file, falling back to mock data only when the file does not exist.
+     * Malformed files fail with an {@link IllegalArgumentException} carrying line and column.
+     */
     public static GraphData readGraphData(String filePath) {
-        try {
-            // Try to read actual file
-            File file = new File(filePath);
-            if (file.exists()) {
-                return readActualJsonFile(file);
-            }
-        } catch (Exception e) {
+        File file = new File(filePath);
+        if (!file.exists()) {
             System.out.println("Could not read " + filePath + ", using mock data");
+            return createMockData(filePath);
         }
+        return readEdgeList(file).toGraphData();
+    }
 
-        // Fallback to mock data based on filename
-        return createMockData(filePath);
+    public static EdgeList readEdgeList(String filePath) {
+        return readEdgeList(new File(filePath));
     }
 
-    private static GraphData readActualJsonFile(File file) throws IOException {
-        // Simple JSON parsing for our specific format
-        StringBuilder content = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line);
-            }
+    /**
+     * Streams {"n", "edges":[{"u","v","w"}], "source"} straight into primitive edge arrays.
+     * Only the current token is held in memory, so file size is bounded by the edge arrays, not the text.
+     */
+    public static EdgeList readEdgeList(File file) {
+        try (JsonParser parser = FACTORY.createParser(file)) {
+            return parseEdgeList(parser, file.getPath());
+        } catch (JsonProcessingException e) {
+            JsonLocation location = e.getLocation();
+            throw new IllegalArgumentException(formatError(file.getPath(), location, e.getOriginalMessage()), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file.getPath(), e);
         }
-
-        String json = content.toString();
-        return parseSimpleJson(json);
     }
 
-    private static GraphData parseSimpleJson(String json) {
-        // Very basic JSON parsing for our specific format
-        GraphData data = new GraphData();
-        data.setDirected(true); // Our graphs are always directed
-        data.setWeightModel("edge");
-
-        try {
-            // Extract vertices count
-            int nIndex = json.indexOf("\"n\":");
-            if (nIndex != -1) {
-                int nStart = json.indexOf(":", nIndex) + 1;
-                int nEnd = json.indexOf(",", nStart);
-                String nStr = json.substring(nStart, nEnd).trim();
-                data.setVertices(Integer.parseInt(nStr));
+    private static EdgeList parseEdgeList(JsonParser parser, String path) throws IOException {
+        EdgeList edges = new EdgeList(1024);
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT, path);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "n":
+                    edges.setVertices(readInt(parser, value, path));
+                    break;
+                case "source":
+                    edges.setSource(value == JsonToken.VALUE_NULL ? null : readInt(parser, value, path));
+                    break;
+                case "edges":
+                    expect(parser, value, JsonToken.START_ARRAY, path);
+                    readEdges(parser, edges, path);
+                    break;
+                default:
+                    parser.skipChildren();
             }
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_OBJECT, path);
 
-            // Extract source
-            int sourceIndex = json.indexOf("\"source\":");
-            if (sourceIndex != -1) {
-                int sourceStart = json.indexOf(":", sourceIndex) + 1;
-                int sourceEnd = json.indexOf(",", sourceStart);
-                if (sourceEnd == -1) sourceEnd = json.indexOf("}", sourceStart);
-                String sourceStr = json.substring(sourceStart, sourceEnd).trim();
-                data.setSource(Integer.parseInt(sourceStr));
+        if (edges.getVertices() < 0) {
+            throw new IllegalArgumentException(formatError(path, parser.getCurrentLocation(), "missing \"n\""));
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.getFrom(i) >= edges.getVertices() || edges.getTo(i) >= edges.getVertices()) {
+                throw new IllegalArgumentException(path + ": edge " + i + " (" + edges.getFrom(i) + "->"
+                        + edges.getTo(i) + ") outside [0, " + edges.getVertices() + ")");
             }
+        }
+        return edges;
+    }
 
-            // Extract edges - basic parsing
-            int edgesStart = json.indexOf("\"edges\":") + 8;
-            int edgesEnd = json.indexOf("]", edgesStart) + 1;
-            String edgesArray = json.substring(edgesStart, edgesEnd);
-
-            // Parse each edge {u:x, v:y, w:z}
-            int edgeStart = 0;
-            while ((edgeStart = edgesArray.indexOf("{", edgeStart)) != -1) {
-                int edgeEnd = edgesArray.indexOf("}", edgeStart);
-                String edgeStr = edgesArray.substring(edgeStart, edgeEnd + 1);
-
-                // Extract u, v, w
-                int uIndex = edgeStr.indexOf("\"u\":");
-                int vIndex = edgeStr.indexOf("\"v\":");
-                int wIndex = edgeStr.indexOf("\"w\":");
-
-                if (uIndex != -1 && vIndex != -1 && wIndex != -1) {
-                    int u = extractNumber(edgeStr, uIndex);
-                    int v = extractNumber(edgeStr, vIndex);
-                    int w = extractNumber(edgeStr, wIndex);
-
-                    data.addEdge(u, v, w);
+    private static void readEdges(JsonParser parser, EdgeList edges, String path) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            JsonLocation edgeStart = parser.getTokenLocation();
+            int u = -1;
+            int v = -1;
+            int w = 0;
+            boolean hasWeight = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("u".equals(field)) {
+                    u = readVertex(parser, value, path);
+                } else if ("v".equals(field)) {
+                    v = readVertex(parser, value, path);
+                } else if ("w".equals(field)) {
+                    w = readInt(parser, value, path);
+                    hasWeight = true;
+                } else {
+                    parser.skipChildren();
                 }
-
-                edgeStart = edgeEnd + 1;
             }
+            if (u < 0 || v < 0 || !hasWeight) {
+                throw new IllegalArgumentException(formatError(path, edgeStart, "edge needs \"u\", \"v\" and \"w\""));
+            }
+            edges.addEdge(u, v, w);
+        }
+        expect(parser, token, JsonToken.END_ARRAY, path);
+    }
 
-        } catch (Exception e) {
-            System.out.println("Error parsing JSON, using mock data");
-            return createMockData("fallback");
+    private static int readVertex(JsonParser parser, JsonToken token, String path) throws IOException {
+        int vertex = readInt(parser, token, path);
+        if (vertex < 0) {
+            throw new IllegalArgumentException(formatError(path, parser.getTokenLocation(), "negative vertex " + vertex));
         }
+        return vertex;
+    }
 
-        return data;
+    private static int readInt(JsonParser parser, JsonToken token, String path) throws IOException {
+        expect(parser, token, JsonToken.VALUE_NUMBER_INT, path);
+        return parser.getIntValue();
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected, String path) {
+        if (actual != expected) {
+            throw new IllegalArgumentException(formatError(path, parser.getTokenLocation(),
+                    "expected " + expected + " but found " + actual));
+        }
     }
 
-    private static int extractNumber(String str, int index) {
-        int start = str.indexOf(":", index) + 1;
-        int end = str.indexOf(",", start);
-        if (end == -1) end = str.indexOf("}", start);
-        return Integer.parseInt(str.substring(start, end).trim());
+    private static String formatError(String path, JsonLocation location, String message) {
+        if (location == null) {
+            return "Malformed graph file " + path + ": " + message;
+        }
+        return String.format("Malformed graph file %s at line %d, column %d: %s",
+                path, location.getLineNr(), location.getColumnNr(), message);
     }
 
     private static GraphData createMockData(String filePath) {
         // Return appropriate mock data based on filename
-        DataGenerator generator = new DataGenerator();
-
         if (filePath.contains("tasks.json")) {
             return createExampleTasks();
         } else if (filePath.contains("small_1")) {
@@ -0,0 +1,343 @@
+package graph.util;
+
+import graph.common.Graph;
+import graph.common.OffHeapGraph;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel loader for plain-text edge lists with one {@code u v [w]} edge per line, separated by spaces,
+ * tabs, commas or semicolons (so CSV and TSV exports load as they are). A missing weight is 1. Lines
+ * starting with {@code #} or {@code %} are comments, and a first line starting with a letter is a header.
+ * <p>
+ * The file is memory-mapped and cut into line-aligned chunks that are parsed concurrently straight from
+ * the mapped bytes, each into its own primitive edge buffers. The buffers are then merged into forward
+ * and reverse CSR by a parallel counting sort: vertex ranges are scattered per chunk, then each range is
+ * sorted on its own. Edges keep their file order within each row, so the result matches a sequential load.
+ */
+public class TextGraphUtil {
+    // Every chunk gets a mapping of its own, released as soon as it is parsed, so a chunk must stay below the
+    // 2 GB limit of a single mapping
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    public static Graph read(File file) {
+        return read(file, -1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param vertices vertex count, or -1 to use the largest id in the file plus one
+     * @param threads  parser and sort threads
+     */
+    public static Graph read(File file, int vertices, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, threads);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            runAll(pool, chunks.length, c -> {
+                try {
+                    chunks[c] = parse(channel, bounds[c], bounds[c + 1], c == 0, file.getPath());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read " + file.getPath(), e);
+                }
+            });
+
+            long total = 0;
+            int maxVertex = -1;
+            for (Chunk chunk : chunks) {
+                total += chunk.size;
+                maxVertex = Math.max(maxVertex, chunk.maxVertex);
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException(file.getPath() + " holds more than " + (Integer.MAX_VALUE - 8)
+                        + " edges");
+            }
+            int n = vertices >= 0 ? vertices : maxVertex + 1;
+            if (maxVertex >= n) {
+                throw new IndexOutOfBoundsException("Vertex " + maxVertex + " outside [0, " + n + ") in "
+                        + file.getPath());
+            }
+            return merge(chunks, n, (int) total, threads, pool);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file.getPath(), e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Splits the file evenly, then moves every cut forward to just past the next newline
+    private static long[] chunkBounds(FileChannel channel, int threads) throws IOException {
+        long size = channel.size();
+        int count = (int) Math.max(1, Math.max((long) threads * CHUNKS_PER_THREAD,
+                (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES));
+        count = (int) Math.min(count, Math.max(1, size / 4096));
+        long[] bounds = new long[count + 1];
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        for (int i = 1; i < count; i++) {
+            long cut = Math.max(bounds[i - 1], size / count * i);
+            boolean found = false;
+            while (!found && cut < size) {
+                window.clear();
+                int read = channel.read(window, cut);
+                for (int k = 0; k < read; k++) {
+                    if (window.get(k) == '\n') {
+                        cut += k + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    cut += Math.max(read, 0);
+                }
+            }
+            bounds[i] = Math.min(cut, size);
+        }
+        bounds[count] = size;
+        return bounds;
+    }
+
+    private static Chunk parse(FileChannel channel, long start, long end, boolean first, String path)
+            throws IOException {
+        Chunk chunk = new Chunk((int) Math.max(16, (end - start) / 16));
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Line of more than 2 GB in " + path);
+        }
+        if (end == start) {
+            return chunk;
+        }
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        try {
+            parse(bytes, chunk, start, first, path);
+        } finally {
+            // Unmapped at once, or the file would stay locked on Windows until the buffer is collected
+            OffHeapGraph.free(bytes);
+        }
+        return chunk;
+    }
+
+    private static void parse(ByteBuffer bytes, Chunk chunk, long start, boolean first, String path) {
+        int limit = bytes.limit();
+        int i = 0;
+        boolean header = first;
+        while (i < limit) {
+            byte c = bytes.get(i);
+            if (c == '\n' || c == '\r' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            if (c == '#' || c == '%' || (header && (c | 0x20) >= 'a' && (c | 0x20) <= 'z')) {
+                while (i < limit && bytes.get(i) != '\n') {
+                    i++;
+                }
+                header = false;
+                continue;
+            }
+            header = false;
+
+            long lineStart = start + i;
+            long value = 0;
+            int[] fields = chunk.fields;
+            int count = 0;
+            // Up to three integers separated by runs of blanks, commas or semicolons
+            while (i < limit && bytes.get(i) != '\n') {
+                c = bytes.get(i);
+                if (c == ' ' || c == '\t' || c == ',' || c == ';' || c == '\r') {
+                    i++;
+                    continue;
+                }
+                if (count == 3) {
+                    throw malformed(path, lineStart, "more than three fields");
+                }
+                boolean negative = c == '-';
+                if (negative || c == '+') {
+                    i++;
+                }
+                int digits = 0;
+                value = 0;
+                while (i < limit && (c = bytes.get(i)) >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    if (++digits > 10) {
+                        throw malformed(path, lineStart, "number out of range");
+                    }
+                    i++;
+                }
+                if (digits == 0) {
+                    throw malformed(path, lineStart, "expected a number");
+                }
+                if (negative) {
+                    value = -value;
+                }
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                    throw malformed(path, lineStart, "number out of range");
+                }
+                fields[count++] = (int) value;
+            }
+            if (count < 2) {
+                throw malformed(path, lineStart, "expected u v [w]");
+            }
+            if (fields[0] < 0 || fields[1] < 0) {
+                throw malformed(path, lineStart, "negative vertex id");
+            }
+            chunk.add(fields[0], fields[1], count == 3 ? fields[2] : 1);
+        }
+    }
+
+    private static IllegalArgumentException malformed(String path, long offset, String reason) {
+        return new IllegalArgumentException("Malformed edge in " + path + " at byte " + offset + ": " + reason);
+    }
+
+    private static Graph merge(Chunk[] chunks, int n, int edges, int threads, ExecutorService pool) {
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edges];
+        int[] weights = new int[edges];
+        int[] reverseOffsets = new int[n + 1];
+        int[] reverseSources = new int[edges];
+        int[] reverseWeights = new int[edges];
+        // Scratch shared by both sorts
+        int[] keys = new int[edges];
+        int[] values = new int[edges];
+        int[] scratchWeights = new int[edges];
+        sort(chunks, true, n, threads, pool, keys, values, scratchWeights, offsets, targets, weights);
+        sort(chunks, false, n, threads, pool, keys, values, scratchWeights, reverseOffsets, reverseSources,
+                reverseWeights);
+        return Graph.fromCsr(n, offsets, targets, weights, reverseOffsets, reverseSources, reverseWeights);
+    }
+
+    /**
+     * Stable parallel counting sort of all chunk edges by source ({@code bySource}) or by target.
+     * Pass 1 counts, per chunk, the edges falling into each vertex range; pass 2 scatters every chunk into
+     * its slot of each range, chunks in file order; pass 3 sorts each range by exact vertex on its own.
+     */
+    private static void sort(Chunk[] chunks, boolean bySource, int n, int threads, ExecutorService pool,
+                             int[] keys, int[] values, int[] scratchWeights,
+                             int[] offsets, int[] others, int[] weights) {
+        int ranges = Math.max(1, Math.min(n, threads * CHUNKS_PER_THREAD));
+        int width = n == 0 ? 1 : (n + ranges - 1) / ranges;
+        int[][] counts = new int[chunks.length][ranges];
+        runAll(pool, chunks.length, c -> {
+            int[] key = bySource ? chunks[c].from : chunks[c].to;
+            int[] count = counts[c];
+            for (int i = 0; i < chunks[c].size; i++) {
+                count[key[i] / width]++;
+            }
+        });
+
+        // Range r starts at rangeStart[r]; inside it chunk c writes from counts[c][r] on, after turning counts
+        // into those positions
+        int[] rangeStart = new int[ranges + 1];
+        int position = 0;
+        for (int r = 0; r < ranges; r++) {
+            rangeStart[r] = position;
+            for (int[] count : counts) {
+                int size = count[r];
+                count[r] = position;
+                position += size;
+            }
+        }
+        rangeStart[ranges] = position;
+
+        runAll(pool, chunks.length, c -> {
+            Chunk chunk = chunks[c];
+            int[] key = bySource ? chunk.from : chunk.to;
+            int[] value = bySource ? chunk.to : chunk.from;
+            int[] next = counts[c];
+            for (int i = 0; i < chunk.size; i++) {
+                int slot = next[key[i] / width]++;
+                keys[slot] = key[i];
+                values[slot] = value[i];
+                scratchWeights[slot] = chunk.weight[i];
+            }
+        });
+
+        runAll(pool, ranges, r -> {
+            int low = Math.min(n, r * width);
+            int high = Math.min(n, low + width);
+            int[] next = new int[high - low + 1];
+            for (int i = rangeStart[r]; i < rangeStart[r + 1]; i++) {
+                next[keys[i] - low + 1]++;
+            }
+            next[0] = rangeStart[r];
+            for (int v = 0; v < high - low; v++) {
+                next[v + 1] += next[v];
+                offsets[low + v] = next[v];
+            }
+            for (int i = rangeStart[r]; i < rangeStart[r + 1]; i++) {
+                int slot = next[keys[i] - low]++;
+                others[slot] = values[i];
+                weights[slot] = scratchWeights[i];
+            }
+        });
+        offsets[n] = rangeStart[ranges];
+    }
+
+    private static void runAll(ExecutorService pool, int count, IntConsumer task) {
+        List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(() -> {
+                task.accept(index);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // One parser's output, in file order
+    private static final class Chunk {
+        private final int[] fields = new int[3];
+        private int[] from;
+        private int[] to;
+        private int[] weight;
+        private int size;
+        private int maxVertex = -1;
+
+        Chunk(int capacity) {
+            from = new int[capacity];
+            to = new int[capacity];
+            weight = new int[capacity];
+        }
+
+        void add(int u, int v, int w) {
+            if (size == from.length) {
+                int capacity = size + (size >> 1) + 1;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+        }
+    }
+}
\ No newline at end of file